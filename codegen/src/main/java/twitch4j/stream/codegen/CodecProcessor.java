@@ -0,0 +1,322 @@
+package twitch4j.stream.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@code twitch4j.stream.json.JsonCodec} for each class annotated with
+ * {@code twitch4j.stream.json.GenerateCodec}, reading and writing its fields with the Jackson streaming API, and
+ * registers the generated codecs in {@code META-INF/services}.
+ * <p>
+ * Fields are accessed through their getters and setters, which may be generated by Lombok in the same compilation:
+ * only the names of the accessors are derived here, never looked up.
+ */
+@SupportedAnnotationTypes(CodecProcessor.ANNOTATION)
+public class CodecProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "twitch4j.stream.json.GenerateCodec";
+
+    private static final String CODEC = "twitch4j.stream.json.JsonCodec";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final String SUFFIX = "JsonCodec";
+    /**
+     * The {@code @Generated} annotations to mark codecs with, the first one available being used: the one of Java 9
+     * and later, then the one of Java 8, which later versions lack. Codecs are left unmarked if neither is available.
+     */
+    private static final String[] GENERATED = {"javax.annotation.processing.Generated", "javax.annotation.Generated"};
+
+    private final Set<String> generated = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS
+                        || element.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+                    error(element, "@GenerateCodec only applies to top-level classes");
+                    continue;
+                }
+                generate((TypeElement) element);
+            }
+        }
+        if (round.processingOver() && !generated.isEmpty()) {
+            writeServices();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement model) {
+        String packageName = ((PackageElement) model.getEnclosingElement()).getQualifiedName().toString();
+        String modelName = model.getQualifiedName().toString();
+        String codecName = model.getSimpleName() + SUFFIX;
+        List<Property> properties = new ArrayList<>();
+        for (Element member : model.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.FIELD && !member.getModifiers().contains(Modifier.STATIC)
+                    && !member.getModifiers().contains(Modifier.TRANSIENT)) {
+                TypeMirror type = member.asType();
+                // primitives without a JSON scalar counterpart go through the codec as their wrapper
+                TypeMirror referenceType = type.getKind().isPrimitive()
+                        ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType()
+                        : type;
+                properties.add(new Property(member.getSimpleName().toString(), jsonName(member), type,
+                        referenceType));
+            }
+        }
+
+        StringBuilder source = new StringBuilder(4096);
+        source.append("package ").append(packageName).append(";\n\n")
+                .append("import com.fasterxml.jackson.core.JsonGenerator;\n")
+                .append("import com.fasterxml.jackson.core.JsonParseException;\n")
+                .append("import com.fasterxml.jackson.core.JsonParser;\n")
+                .append("import com.fasterxml.jackson.core.JsonToken;\n")
+                .append("import java.io.IOException;\n\n")
+                .append("/**\n * Reads and writes {@link ").append(modelName)
+                .append("} with the Jackson streaming API.\n */\n")
+                .append(generatedAnnotation())
+                .append("public final class ").append(codecName).append(" implements ").append(CODEC).append('<')
+                .append(modelName).append("> {\n\n");
+        for (Property property : properties) {
+            if (property.kind == Kind.OBJECT) {
+                source.append("    private static final com.fasterxml.jackson.core.type.TypeReference<")
+                        .append(property.referenceType).append("> ").append(property.typeConstant())
+                        .append(" =\n            new com.fasterxml.jackson.core.type.TypeReference<")
+                        .append(property.referenceType).append(">() {};\n");
+            }
+        }
+        if (properties.stream().anyMatch(property -> property.kind == Kind.OBJECT)) {
+            source.append('\n');
+        }
+        if (properties.stream().anyMatch(property -> property.kind == Kind.STRING)) {
+            source.append("    private static String readString(JsonParser parser, JsonToken token)")
+                    .append(" throws IOException {\n")
+                    .append("        if (!token.isScalarValue()) {\n")
+                    .append("            throw new JsonParseException(parser, \"Expected a string, got \" + token);\n")
+                    .append("        }\n        return parser.getText();\n    }\n\n");
+        }
+
+        source.append("    @Override\n    public Class<").append(modelName).append("> type() {\n        return ")
+                .append(modelName).append(".class;\n    }\n\n");
+
+        source.append("    @Override\n    public void write(").append(modelName)
+                .append(" value, JsonGenerator generator) throws IOException {\n")
+                .append("        generator.writeStartObject();\n");
+        for (Property property : properties) {
+            source.append("        generator.writeFieldName(\"").append(escape(property.jsonName)).append("\");\n");
+            String getter = "value." + property.getter() + "()";
+            if (property.primitive) {
+                source.append("        ").append(property.kind.write(getter)).append(";\n");
+            } else {
+                source.append("        if (").append(getter).append(" == null) {\n")
+                        .append("            generator.writeNull();\n")
+                        .append("        } else {\n")
+                        .append("            ").append(property.kind.write(getter)).append(";\n")
+                        .append("        }\n");
+            }
+        }
+        source.append("        generator.writeEndObject();\n    }\n\n");
+
+        source.append("    @Override\n    public ").append(modelName)
+                .append(" read(JsonParser parser) throws IOException {\n")
+                .append("        JsonToken token = parser.currentToken() == null ? parser.nextToken()")
+                .append(" : parser.currentToken();\n")
+                .append("        if (token == JsonToken.VALUE_NULL) {\n            return null;\n        }\n")
+                .append("        if (token != JsonToken.START_OBJECT) {\n")
+                .append("            throw new JsonParseException(parser, \"Expected an object for ")
+                .append(model.getSimpleName()).append(", got \" + token);\n        }\n")
+                .append("        ").append(modelName).append(" value = new ").append(modelName).append("();\n")
+                .append("        String name;\n")
+                .append("        while ((name = parser.nextFieldName()) != null) {\n")
+                .append("            token = parser.nextToken();\n")
+                .append("            switch (name) {\n");
+        for (Property property : properties) {
+            source.append("                case \"").append(escape(property.jsonName)).append("\":\n");
+            String read = property.kind.read(property);
+            if (property.primitive) {
+                source.append("                    if (token != JsonToken.VALUE_NULL) {\n")
+                        .append("                        value.").append(property.setter()).append('(').append(read)
+                        .append(");\n                    }\n");
+            } else {
+                source.append("                    value.").append(property.setter())
+                        .append("(token == JsonToken.VALUE_NULL ? null : ").append(read).append(");\n");
+            }
+            source.append("                    break;\n");
+        }
+        source.append("                default:\n")
+                .append("                    parser.skipChildren();\n")
+                .append("            }\n        }\n        return value;\n    }\n}\n");
+
+        String qualifiedCodecName = packageName.isEmpty() ? codecName : packageName + '.' + codecName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedCodecName, model);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+            generated.add(qualifiedCodecName);
+        } catch (IOException e) {
+            error(model, "Cannot write " + qualifiedCodecName + ": " + e.getMessage());
+        }
+    }
+
+    private void writeServices() {
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + CODEC);
+            try (Writer writer = file.openWriter()) {
+                for (String codec : generated) {
+                    writer.write(codec);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot register the generated codecs: " + e.getMessage());
+        }
+    }
+
+    private static String jsonName(Element field) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(JSON_PROPERTY)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                        : annotation.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")
+                            && !entry.getValue().getValue().toString().isEmpty()) {
+                        return entry.getValue().getValue().toString();
+                    }
+                }
+            }
+        }
+        return field.getSimpleName().toString();
+    }
+
+    private String generatedAnnotation() {
+        for (String annotation : GENERATED) {
+            if (processingEnv.getElementUtils().getTypeElement(annotation) != null) {
+                return "@" + annotation + "(\"" + getClass().getName() + "\")\n";
+            }
+        }
+        return "";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * How a field is written and read: directly for the JSON scalar types, through the Jackson codec otherwise. Numbers
+     * and booleans are read with the strict accessors, so a value of the wrong type or out of range fails the parsing
+     * instead of being read as zero or {@code false}. Strings accept any scalar, like data binding does, but an object
+     * or an array fails the parsing instead of being read as {@code null} and leaving the parser inside it.
+     */
+    private enum Kind {
+        STRING("generator.writeString(%s)", "readString(parser, token)"),
+        INT("generator.writeNumber(%s)", "parser.getIntValue()"),
+        LONG("generator.writeNumber(%s)", "parser.getLongValue()"),
+        DOUBLE("generator.writeNumber(%s)", "parser.getDoubleValue()"),
+        BOOLEAN("generator.writeBoolean(%s)", "parser.getBooleanValue()"),
+        OBJECT("generator.writeObject(%s)", "parser.getCodec().readValue(parser, %s)");
+
+        private final String write;
+        private final String read;
+
+        Kind(String write, String read) {
+            this.write = write;
+            this.read = read;
+        }
+
+        private String write(String value) {
+            return String.format(write, value);
+        }
+
+        private String read(Property property) {
+            return String.format(read, property.typeConstant());
+        }
+
+        private static Kind of(TypeMirror type) {
+            switch (type.toString()) {
+                case "java.lang.String":
+                    return STRING;
+                case "int":
+                case "java.lang.Integer":
+                    return INT;
+                case "long":
+                case "java.lang.Long":
+                    return LONG;
+                case "double":
+                case "java.lang.Double":
+                    return DOUBLE;
+                case "boolean":
+                case "java.lang.Boolean":
+                    return BOOLEAN;
+                default:
+                    return OBJECT;
+            }
+        }
+    }
+
+    private static class Property {
+
+        private final String name;
+        private final String jsonName;
+        private final String type;
+        private final String referenceType;
+        private final boolean primitive;
+        private final Kind kind;
+
+        private Property(String name, String jsonName, TypeMirror type, TypeMirror referenceType) {
+            this.name = name;
+            this.jsonName = jsonName;
+            this.type = type.toString();
+            this.referenceType = referenceType.toString();
+            this.primitive = type.getKind().isPrimitive();
+            this.kind = Kind.of(type);
+        }
+
+        private String getter() {
+            return (type.equals("boolean") ? "is" : "get") + capitalized();
+        }
+
+        private String setter() {
+            return "set" + capitalized();
+        }
+
+        private String typeConstant() {
+            return name.toUpperCase() + "_TYPE";
+        }
+
+        private String capitalized() {
+            return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+}
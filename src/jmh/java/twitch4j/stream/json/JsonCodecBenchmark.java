@@ -0,0 +1,80 @@
+package twitch4j.stream.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the codec generated for {@link Error} with Jackson data binding, both with a reader and a writer built
+ * once, as the strategies do. Run with {@code -prof gc} to compare allocations too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private static final byte[] JSON = ("{\"error\":\"Too Many Requests\",\"status\":429,"
+            + "\"message\":\"Rate limit exceeded\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonFactory factory = mapper.getFactory();
+    private final ObjectReader reader = mapper.readerFor(Error.class);
+    private final ObjectWriter writer = mapper.writerFor(Error.class);
+
+    private JsonCodec<Error> codec;
+    private Error error;
+
+    @Setup
+    public void setup() throws IOException {
+        codec = Objects.requireNonNull(JsonCodecs.find(Error.class), "The Error codec was not generated");
+        error = reader.readValue(JSON);
+    }
+
+    @Benchmark
+    public Error readDatabind() throws IOException {
+        return reader.readValue(JSON);
+    }
+
+    @Benchmark
+    public Error readGenerated() throws IOException {
+        try (JsonParser parser = factory.createParser(JSON)) {
+            return codec.read(parser);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeDatabind() throws IOException {
+        return writer.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public byte[] writeGenerated() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            codec.write(error, generator);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package twitch4j.stream.rest.http;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+import twitch4j.stream.json.Error;
+import twitch4j.stream.stub.Stubs;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the Jackson reader and writer strategies over in-memory requests and responses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonStrategyBenchmark {
+
+    private static final String JSON = "{\"error\":\"Too Many Requests\",\"status\":429,\"message\":\"Rate limit exceeded\"}";
+
+    private static final Type ERROR_LIST = new TypeReference<List<Error>>() {}.getType();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JacksonReaderStrategy<Error> reader = new JacksonReaderStrategy<>(mapper);
+    private final JacksonReaderStrategy<List<Error>> listReader = new JacksonReaderStrategy<>(mapper);
+    private final JacksonWriterStrategy writer = new JacksonWriterStrategy(mapper);
+
+    private HttpClientResponse response;
+    private HttpClientResponse listResponse;
+    private HttpClientRequest request;
+    private Error body;
+    private volatile Object written;
+
+    @Setup
+    public void setup() {
+        ByteBuf buffer = Unpooled.directBuffer().writeBytes(JSON.getBytes(StandardCharsets.UTF_8));
+        response = Stubs.response(buffer);
+        listResponse = Stubs.response(Unpooled.directBuffer()
+                .writeBytes(("[" + JSON + "," + JSON + "]").getBytes(StandardCharsets.UTF_8)));
+        request = Stubs.request(sent -> written = sent);
+        body = reader.read(response, Error.class).block();
+    }
+
+    @Benchmark
+    public boolean canRead() {
+        return reader.canRead(Error.class, "application/json; charset=utf-8");
+    }
+
+    @Benchmark
+    public Error read() {
+        return reader.read(response, Error.class).block();
+    }
+
+    @Benchmark
+    public List<Error> readGeneric() {
+        return listReader.read(listResponse, List.class, ERROR_LIST).block();
+    }
+
+    @Benchmark
+    public boolean canWrite() {
+        return writer.canWrite(Error.class, "application/json");
+    }
+
+    @Benchmark
+    public Void write() {
+        return writer.write(request, body).block();
+    }
+}
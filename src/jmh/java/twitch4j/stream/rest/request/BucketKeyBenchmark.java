@@ -0,0 +1,58 @@
+package twitch4j.stream.rest.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of resolving the bucket of a request, which {@link Router#exchange} does for every request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BucketKeyBenchmark {
+
+    private static final String TEMPLATE = "/channels/{channel.id}/subscriptions";
+    private static final String COMPLETE = "/channels/44322889/subscriptions";
+
+    private final Map<BucketKey, Object> streams = new ConcurrentHashMap<>();
+    private BucketKey key;
+
+    @Setup
+    public void setup() {
+        key = BucketKey.of(TEMPLATE, COMPLETE);
+        for (int i = 0; i < 1000; i++) {
+            streams.put(BucketKey.of(TEMPLATE, "/channels/" + i + "/subscriptions"), new Object());
+        }
+        streams.put(key, new Object());
+    }
+
+    @Benchmark
+    public BucketKey create() {
+        return BucketKey.of(TEMPLATE, COMPLETE);
+    }
+
+    @Benchmark
+    public int hash() {
+        return key.hashCode();
+    }
+
+    @Benchmark
+    public Object lookup() {
+        return streams.get(BucketKey.of(TEMPLATE, COMPLETE));
+    }
+}
@@ -0,0 +1,75 @@
+package twitch4j.stream.rest.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import twitch4j.stream.json.Error;
+import twitch4j.stream.rest.http.EmptyWriterStrategy;
+import twitch4j.stream.rest.http.JacksonReaderStrategy;
+import twitch4j.stream.rest.http.JacksonWriterStrategy;
+import twitch4j.stream.rest.http.client.SimpleHttpClient;
+import twitch4j.stream.rest.route.Route;
+import twitch4j.stream.stub.StubServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exchanges batches of requests spread over several buckets through a {@link Router} against a loopback stub server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(RouterBenchmark.BATCH)
+public class RouterBenchmark {
+
+    static final int BATCH = 64;
+    private static final int BUCKETS = 8;
+
+    private static final Route<Error> ROUTE = Route.get("/users/{user.id}/follows", Error.class);
+
+    private StubServer server;
+    private Router router;
+
+    @Setup
+    public void setup() {
+        server = new StubServer("{\"error\":\"Not Found\",\"status\":404,\"message\":\"stub\"}");
+        ObjectMapper mapper = new ObjectMapper();
+        router = new Router(SimpleHttpClient.builder()
+                .baseUrl(server.baseUrl())
+                .writerStrategy(new JacksonWriterStrategy(mapper))
+                .writerStrategy(new EmptyWriterStrategy())
+                .readerStrategy(new JacksonReaderStrategy<>(mapper))
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Error exchangeBatch() {
+        List<Mono<Error>> exchanges = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            exchanges.add(ROUTE.newRequest(i % BUCKETS).exchange(router));
+        }
+        return Flux.merge(exchanges).blockLast();
+    }
+}
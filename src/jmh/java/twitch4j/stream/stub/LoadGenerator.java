@@ -0,0 +1,152 @@
+package twitch4j.stream.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import twitch4j.stream.metrics.LogHistogram;
+import twitch4j.stream.rest.http.EmptyWriterStrategy;
+import twitch4j.stream.rest.http.JacksonReaderStrategy;
+import twitch4j.stream.rest.http.JacksonWriterStrategy;
+import twitch4j.stream.rest.http.client.ExchangeRecorder;
+import twitch4j.stream.rest.http.client.ExchangeReplayServer;
+import twitch4j.stream.rest.http.client.SimpleHttpClient;
+import twitch4j.stream.rest.request.Router;
+import twitch4j.stream.rest.route.Route;
+import twitch4j.stream.websocket.WebSocketClient;
+import twitch4j.stream.websocket.WebSocketMessage;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a {@link Router} and several {@link WebSocketClient} sessions against a {@link TwitchApiSimulator}, then
+ * reports throughput and latency percentiles.
+ * <p>
+ * Settings are read from system properties, e.g. {@code gradle loadTest -Dloadtest.requests=20000}:
+ * <ul>
+ * <li>{@code loadtest.requests}, {@code loadtest.concurrency} and {@code loadtest.buckets} shape the REST load.</li>
+ * <li>{@code loadtest.limit} is the Helix points per minute of the simulated client.</li>
+ * <li>{@code loadtest.latencyMs}, {@code loadtest.jitterMs} and {@code loadtest.errorRate} shape the server.</li>
+ * <li>{@code loadtest.sessions}, {@code loadtest.pubSubIntervalMs} and {@code loadtest.seconds} shape the PubSub
+ * load.</li>
+ * <li>{@code loadtest.record} is a file capturing the REST exchanges, and {@code loadtest.replay} a captured file
+ * served by an {@link ExchangeReplayServer} instead of the simulator, for repeatable runs on recorded payloads.</li>
+ * </ul>
+ */
+public class LoadGenerator {
+
+    private static final Route<JsonNode> ROUTE = Route.get("/users/{user.id}", JsonNode.class);
+
+    public static void main(String[] args) {
+        int requests = Integer.getInteger("loadtest.requests", 10_000);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 256);
+        int buckets = Integer.getInteger("loadtest.buckets", 16);
+        int sessions = Integer.getInteger("loadtest.sessions", 8);
+        int seconds = Integer.getInteger("loadtest.seconds", 10);
+
+        try (TwitchApiSimulator simulator = TwitchApiSimulator.builder()
+                .limits(Integer.getInteger("loadtest.limit", 1_000_000), Integer.getInteger("loadtest.limit", 1_000_000))
+                .latency(Duration.ofMillis(Integer.getInteger("loadtest.latencyMs", 5)),
+                        Duration.ofMillis(Integer.getInteger("loadtest.jitterMs", 5)))
+                .errorRate(Double.parseDouble(System.getProperty("loadtest.errorRate", "0")))
+                .pubSubRate(Duration.ofMillis(Integer.getInteger("loadtest.pubSubIntervalMs", 1)))
+                .build()) {
+            String replay = System.getProperty("loadtest.replay");
+            if (replay != null) {
+                try (ExchangeReplayServer server = ExchangeReplayServer.start(Paths.get(replay))) {
+                    rest(server.getBaseUrl() + "/helix", simulator, requests, concurrency, buckets);
+                    System.out.printf("  replayed %d responses, %d requests not recorded%n", server.getServed(),
+                            server.getMissed());
+                }
+            } else {
+                rest(simulator.helixUrl(), simulator, requests, concurrency, buckets);
+            }
+            pubSub(simulator, sessions, seconds);
+        }
+    }
+
+    private static void rest(String baseUrl, TwitchApiSimulator simulator, int requests, int concurrency,
+                             int buckets) {
+        ObjectMapper mapper = new ObjectMapper();
+        String record = System.getProperty("loadtest.record");
+        ExchangeRecorder recorder = record == null ? null : ExchangeRecorder.builder(Paths.get(record)).build();
+        Router router = new Router(SimpleHttpClient.builder()
+                .baseUrl(baseUrl)
+                .defaultHeader("Client-ID", "loadtest")
+                .writerStrategy(new JacksonWriterStrategy(mapper))
+                .writerStrategy(new EmptyWriterStrategy())
+                .readerStrategy(new JacksonReaderStrategy<>(mapper))
+                .recorder(recorder)
+                .build());
+
+        LogHistogram latency = new LogHistogram();
+        AtomicLong failures = new AtomicLong();
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                    long sent = System.nanoTime();
+                    return ROUTE.newRequest(i % buckets).exchange(router)
+                            .doOnSuccessOrError((response, t) -> latency.record(System.nanoTime() - sent));
+                }).onErrorResume(t -> {
+                    failures.incrementAndGet();
+                    return Mono.empty();
+                }), concurrency)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+        if (recorder != null) {
+            recorder.close();
+        }
+
+        System.out.printf("REST: %d requests, %d failed, %d rate limited and %d injected errors on the server%n",
+                requests, failures.get(), simulator.getRateLimited(), simulator.getInjectedErrors());
+        report(requests, elapsed, latency.snapshot());
+    }
+
+    private static void pubSub(TwitchApiSimulator simulator, int sessions, int seconds) {
+        if (sessions == 0) {
+            return;
+        }
+        WebSocketClient client = WebSocketClient.builder().build();
+        LogHistogram latency = new LogHistogram();
+        AtomicLong received = new AtomicLong();
+        long start = System.nanoTime();
+        Flux.range(0, sessions)
+                .flatMap(i -> client.execute(simulator.pubSubUrl(), session -> session
+                        .send(Mono.just(WebSocketMessage.fromText("{\"type\":\"LISTEN\",\"data\":{\"topics\":"
+                                + "[\"simulated\"]}}")))
+                        .thenMany(session.receive())
+                        .map(WebSocketMessage::getPayloadAsText)
+                        .filter(text -> text.contains("\"MESSAGE\""))
+                        .doOnNext(text -> {
+                            received.incrementAndGet();
+                            latency.record(System.nanoTime() - sentAt(text));
+                        })
+                        .then())
+                        .take(Duration.ofSeconds(seconds)))
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("PubSub: %d sessions, %d messages%n", sessions, received.get());
+        report(received.get(), elapsed, latency.snapshot());
+    }
+
+    private static long sentAt(String text) {
+        int end = text.lastIndexOf('"');
+        int begin = text.lastIndexOf('"', end - 1) + 1;
+        return Long.parseLong(text.substring(begin, end));
+    }
+
+    private static void report(long operations, long elapsedNanos, LogHistogram.Snapshot latency) {
+        System.out.printf("  throughput %.1f ops/s%n", operations * 1e9 / elapsedNanos);
+        System.out.printf("  latency p50 %.3f ms, p99 %.3f ms, p999 %.3f ms, max %.3f ms%n",
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)), millis(latency.getMax()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,32 @@
+package twitch4j.stream.stub;
+
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+
+/**
+ * A loopback HTTP server answering every request with the same JSON body, so benchmarks can exchange requests without
+ * reaching the network.
+ */
+public class StubServer implements AutoCloseable {
+
+    private final NettyContext context;
+
+    public StubServer(String json) {
+        this.context = HttpServer.create("127.0.0.1", 0)
+                .newHandler((request, response) -> response.status(200)
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just(json)))
+                .block();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + context.address().getPort();
+    }
+
+    @Override
+    public void close() {
+        context.dispose();
+        context.onClose().block();
+    }
+}
@@ -0,0 +1,73 @@
+package twitch4j.stream.stub;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.ByteBufFlux;
+import reactor.ipc.netty.NettyOutbound;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Consumer;
+
+/**
+ * In-memory stand-ins for the Reactor Netty request and response, implementing just enough for the reader and writer
+ * strategies to run without a connection.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * A response whose body is the readable bytes of the given buffer. The buffer is not consumed.
+     */
+    public static HttpClientResponse response(ByteBuf body) {
+        return (HttpClientResponse) Proxy.newProxyInstance(Stubs.class.getClassLoader(),
+                new Class<?>[]{HttpClientResponse.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "receive":
+                            return ByteBufFlux.fromInbound(Mono.fromSupplier(body::duplicate));
+                        case "responseHeaders":
+                            return new DefaultHttpHeaders().add("Content-Type", "application/json");
+                        default:
+                            throw new UnsupportedOperationException(method.toString());
+                    }
+                });
+    }
+
+    /**
+     * A request sending each element of its body to the given consumer.
+     */
+    public static HttpClientRequest request(Consumer<Object> sink) {
+        HttpHeaders headers = new DefaultHttpHeaders().add("Content-Type", "application/json");
+        NettyOutbound sent = (NettyOutbound) Proxy.newProxyInstance(Stubs.class.getClassLoader(),
+                new Class<?>[]{NettyOutbound.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("then")) {
+                        return Mono.empty();
+                    }
+                    throw new UnsupportedOperationException(method.toString());
+                });
+        return (HttpClientRequest) Proxy.newProxyInstance(Stubs.class.getClassLoader(),
+                new Class<?>[]{HttpClientRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "sendString":
+                        case "sendByteArray":
+                        case "sendObject":
+                        case "send":
+                            if (args != null && args.length > 0) {
+                                Flux.from((Publisher<?>) args[0]).subscribe(sink);
+                            }
+                            return sent;
+                        case "requestHeaders":
+                            return headers;
+                        default:
+                            throw new UnsupportedOperationException(method.toString());
+                    }
+                });
+    }
+}
@@ -0,0 +1,250 @@
+package twitch4j.stream.stub;
+
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+import reactor.ipc.netty.http.server.HttpServerRequest;
+import reactor.ipc.netty.http.server.HttpServerResponse;
+import reactor.ipc.netty.http.websocket.WebsocketInbound;
+import reactor.ipc.netty.http.websocket.WebsocketOutbound;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process imitation of the Twitch API, to load-test rate limit handling without sending traffic to Twitch.
+ * <ul>
+ * <li>{@code /helix/**} answers with Helix points semantics: every client, identified by its {@code Authorization}
+ * or {@code Client-ID} header, has a bucket of points refilled continuously over a minute. Responses carry
+ * {@code Ratelimit-Limit}, {@code Ratelimit-Remaining}, {@code Ratelimit-Reset} and {@code Date} headers, and an empty
+ * bucket answers 429.</li>
+ * <li>{@code /kraken/**} answers without rate limit headers, as Kraken did.</li>
+ * <li>{@code /pubsub} is a WebSocket endpoint answering {@code PING} and {@code LISTEN} frames and pushing
+ * {@code MESSAGE} frames at a fixed rate, each carrying the time it was sent in nanoseconds.</li>
+ * </ul>
+ * Latency and server error injection apply to every HTTP request.
+ */
+public class TwitchApiSimulator implements AutoCloseable {
+
+    private static final String BODY = "{\"data\":[{\"id\":\"44322889\",\"login\":\"dallas\",\"display_name\":\"dallas\","
+            + "\"type\":\"staff\",\"broadcaster_type\":\"\",\"description\":\"Just a gamer playing games and chatting.\","
+            + "\"view_count\":191836881}]}";
+
+    private final Builder config;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final NettyContext context;
+
+    private TwitchApiSimulator(Builder config) {
+        this.config = config;
+        this.context = HttpServer.create("127.0.0.1", 0)
+                .newRouter(routes -> routes
+                        .ws("/pubsub", this::pubSub)
+                        .route(request -> request.uri().startsWith("/helix"), this::helix)
+                        .route(request -> request.uri().startsWith("/kraken"), this::kraken))
+                .block();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String helixUrl() {
+        return baseUrl("http") + "/helix";
+    }
+
+    public String krakenUrl() {
+        return baseUrl("http") + "/kraken";
+    }
+
+    public String pubSubUrl() {
+        return baseUrl("ws") + "/pubsub";
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        context.dispose();
+        context.onClose().block();
+    }
+
+    private String baseUrl(String scheme) {
+        return scheme + "://127.0.0.1:" + context.address().getPort();
+    }
+
+    private Publisher<Void> helix(HttpServerRequest request, HttpServerResponse response) {
+        requests.incrementAndGet();
+        String client = request.requestHeaders().get("Authorization", request.requestHeaders().get("Client-ID", ""));
+        int limit = client.startsWith("Bearer") ? config.bearerLimit : config.clientLimit;
+        Bucket bucket = buckets.computeIfAbsent(client, k -> new Bucket(limit));
+        long nowMillis = System.currentTimeMillis();
+        boolean allowed = bucket.take(nowMillis);
+
+        response.header("Ratelimit-Limit", String.valueOf(limit))
+                .header("Ratelimit-Remaining", String.valueOf(bucket.remaining(nowMillis)))
+                .header("Ratelimit-Reset", String.valueOf(bucket.resetAt(nowMillis) / 1000))
+                .header("Date", DateFormatter.format(new Date(nowMillis)));
+        if (!allowed) {
+            rateLimited.incrementAndGet();
+            return respond(response, HttpResponseStatus.TOO_MANY_REQUESTS,
+                    "{\"error\":\"Too Many Requests\",\"status\":429,\"message\":\"\"}");
+        }
+        return respond(response, HttpResponseStatus.OK, BODY);
+    }
+
+    private Publisher<Void> kraken(HttpServerRequest request, HttpServerResponse response) {
+        requests.incrementAndGet();
+        return respond(response, HttpResponseStatus.OK, BODY);
+    }
+
+    private Publisher<Void> respond(HttpServerResponse response, HttpResponseStatus status, String body) {
+        Mono<Void> send;
+        if (ThreadLocalRandom.current().nextDouble() < config.errorRate) {
+            injectedErrors.incrementAndGet();
+            send = response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR)
+                    .header("Content-Type", "application/json")
+                    .sendString(Mono.just("{\"error\":\"Internal Server Error\",\"status\":500,\"message\":\"\"}"))
+                    .then();
+        } else {
+            send = response.status(status)
+                    .header("Content-Type", "application/json")
+                    .sendString(Mono.just(body))
+                    .then();
+        }
+        Duration latency = latency();
+        return latency.isZero() ? send : Mono.delay(latency).then(send);
+    }
+
+    private Duration latency() {
+        long jitter = config.latencyJitter.toNanos();
+        long extra = jitter == 0 ? 0 : ThreadLocalRandom.current().nextLong(jitter);
+        return config.latency.plusNanos(extra);
+    }
+
+    private Publisher<Void> pubSub(WebsocketInbound in, WebsocketOutbound out) {
+        Flux<String> replies = in.aggregateFrames()
+                .receiveFrames()
+                .ofType(TextWebSocketFrame.class)
+                .map(TextWebSocketFrame::text)
+                .map(text -> text.contains("\"PING\"")
+                        ? "{\"type\":\"PONG\"}"
+                        : "{\"type\":\"RESPONSE\",\"nonce\":\"\",\"error\":\"\"}");
+        Flux<String> messages = config.pubSubRate.isZero()
+                ? Flux.empty()
+                : Flux.interval(config.pubSubRate).onBackpressureDrop().map(tick -> "{\"type\":\"MESSAGE\","
+                + "\"data\":{\"topic\":\"simulated\",\"message\":\"" + System.nanoTime() + "\"}}");
+        return out.sendString(Flux.merge(replies, messages));
+    }
+
+    /**
+     * A Helix points bucket, refilled continuously over a minute.
+     */
+    private static class Bucket {
+
+        private final int limit;
+        private double points;
+        private long updatedAt = System.currentTimeMillis();
+
+        private Bucket(int limit) {
+            this.limit = limit;
+            this.points = limit;
+        }
+
+        synchronized boolean take(long now) {
+            refill(now);
+            if (points < 1) {
+                return false;
+            }
+            points--;
+            return true;
+        }
+
+        synchronized int remaining(long now) {
+            refill(now);
+            return (int) points;
+        }
+
+        synchronized long resetAt(long now) {
+            refill(now);
+            return now + (long) Math.ceil((limit - points) * 60_000 / limit);
+        }
+
+        private void refill(long now) {
+            points = Math.min(limit, points + (now - updatedAt) * limit / 60_000d);
+            updatedAt = now;
+        }
+    }
+
+    public static class Builder {
+
+        private int clientLimit = 30;
+        private int bearerLimit = 120;
+        private Duration latency = Duration.ZERO;
+        private Duration latencyJitter = Duration.ZERO;
+        private double errorRate = 0;
+        private Duration pubSubRate = Duration.ZERO;
+
+        private Builder() {
+        }
+
+        /**
+         * Points per minute for requests identified by Client-ID only, and for requests with a bearer token.
+         */
+        public Builder limits(int clientLimit, int bearerLimit) {
+            this.clientLimit = clientLimit;
+            this.bearerLimit = bearerLimit;
+            return this;
+        }
+
+        /**
+         * A fixed latency added to every response, plus a uniformly distributed jitter.
+         */
+        public Builder latency(Duration latency, Duration jitter) {
+            this.latency = latency;
+            this.latencyJitter = jitter;
+            return this;
+        }
+
+        /**
+         * The fraction of requests, between 0 and 1, answered with a 500 instead.
+         */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * The interval between two PubSub {@code MESSAGE} frames, zero to disable them.
+         */
+        public Builder pubSubRate(Duration pubSubRate) {
+            this.pubSubRate = pubSubRate;
+            return this;
+        }
+
+        public TwitchApiSimulator build() {
+            return new TwitchApiSimulator(this);
+        }
+    }
+}
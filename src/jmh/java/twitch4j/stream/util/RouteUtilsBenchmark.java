@@ -0,0 +1,53 @@
+package twitch4j.stream.util;
+
+import com.google.common.collect.Multimap;
+import com.google.common.collect.MultimapBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteUtilsBenchmark {
+
+    private static final String TEMPLATE = "/channels/{channel.id}/subscriptions/{user.id}";
+    private static final String COMPLETE = "/channels/44322889/subscriptions/129454141";
+
+    private Multimap<String, Object> query;
+
+    @Setup
+    public void setup() {
+        query = MultimapBuilder.SetMultimapBuilder.linkedHashKeys().hashSetValues().build();
+        query.put("first", 100);
+        query.put("user_login", "twitch");
+        query.put("user_login", "twitchdev");
+    }
+
+    @Benchmark
+    public String expand() {
+        return RouteUtils.expand(TEMPLATE, 44322889L, 129454141L);
+    }
+
+    @Benchmark
+    public String expandQuery() {
+        return RouteUtils.expandQuery(COMPLETE, query);
+    }
+
+    @Benchmark
+    public String getMajorParam() {
+        return RouteUtils.getMajorParam(TEMPLATE, COMPLETE);
+    }
+}
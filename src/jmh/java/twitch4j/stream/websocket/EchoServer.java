@@ -0,0 +1,105 @@
+package twitch4j.stream.websocket;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketServerCompressionHandler;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A loopback WebSocket server echoing every data frame, optionally accepting permessage-deflate. It counts the bytes
+ * that cross the wire in both directions.
+ */
+class EchoServer implements AutoCloseable {
+
+    private final EventLoopGroup group = new NioEventLoopGroup(1);
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final Channel channel;
+
+    EchoServer(boolean compression) throws InterruptedException {
+        this.channel = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new ByteCounter());
+                        ch.pipeline().addLast(new HttpServerCodec());
+                        ch.pipeline().addLast(new HttpObjectAggregator(65536));
+                        if (compression) {
+                            ch.pipeline().addLast(new WebSocketServerCompressionHandler());
+                        }
+                        ch.pipeline().addLast(new WebSocketServerProtocolHandler("/", null, true));
+                        ch.pipeline().addLast(new SimpleChannelInboundHandler<WebSocketFrame>() {
+                            @Override
+                            protected void channelRead0(ChannelHandlerContext ctx, WebSocketFrame frame) {
+                                ctx.writeAndFlush(frame.retain());
+                            }
+                        });
+                    }
+                })
+                .bind("127.0.0.1", 0)
+                .sync()
+                .channel();
+    }
+
+    String url() {
+        return "ws://127.0.0.1:" + ((InetSocketAddress) channel.localAddress()).getPort() + "/";
+    }
+
+    long wireBytes() {
+        return wireBytes.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close().sync();
+            group.shutdownGracefully().sync();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private class ByteCounter extends ChannelDuplexHandler {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            wireBytes.addAndGet(size(msg));
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            wireBytes.addAndGet(size(msg));
+            ctx.write(msg, promise);
+        }
+
+        private int size(Object msg) {
+            if (msg instanceof ByteBuf) {
+                return ((ByteBuf) msg).readableBytes();
+            } else if (msg instanceof ByteBufHolder) {
+                return ((ByteBufHolder) msg).content().readableBytes();
+            }
+            return 0;
+        }
+    }
+}
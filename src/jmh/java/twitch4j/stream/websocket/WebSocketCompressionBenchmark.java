@@ -0,0 +1,123 @@
+package twitch4j.stream.websocket;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.UnicastProcessor;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips PubSub-shaped JSON messages through a loopback echo server with and without permessage-deflate.
+ * <p>
+ * Besides the time per message, the {@code wireBytes} and {@code cpuNanos} counters report the bytes that crossed the
+ * socket and the process CPU time spent for each iteration, both ends included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(WebSocketCompressionBenchmark.BATCH)
+public class WebSocketCompressionBenchmark {
+
+    static final int BATCH = 16;
+
+    private static final String PAYLOAD = "{\"type\":\"MESSAGE\",\"data\":{\"topic\":\"channel-bits-events-v2.46024993\","
+            + "\"message\":\"{\\\"data\\\":{\\\"user_name\\\":\\\"dallasnchains\\\",\\\"channel_name\\\":\\\"dallas\\\","
+            + "\\\"user_id\\\":\\\"129454141\\\",\\\"channel_id\\\":\\\"44322889\\\",\\\"time\\\":\\\"2017-02-09T13:23:58"
+            + ".168Z\\\",\\\"chat_message\\\":\\\"cheer10000 New badge hype!\\\",\\\"bits_used\\\":10000,\\\"total_bits_"
+            + "used\\\":25000,\\\"context\\\":\\\"cheer\\\"},\\\"version\\\":\\\"1.0\\\",\\\"message_type\\\":\\\"bits_"
+            + "event\\\",\\\"message_id\\\":\\\"8145728a4-35f0-4cf7-9dc0-f2ef24de1eb6\\\",\\\"is_anonymous\\\":true}\"}}";
+
+    @Param({"false", "true"})
+    public boolean compression;
+
+    private EchoServer server;
+    private UnicastProcessor<WebSocketMessage> outbound;
+    private Semaphore echoes;
+    private Disposable session;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new EchoServer(compression);
+        outbound = UnicastProcessor.create();
+        echoes = new Semaphore(0);
+
+        WebSocketClient.Builder builder = WebSocketClient.builder();
+        if (compression) {
+            builder.compression(WebSocketCompression.defaults());
+        }
+        session = builder.build()
+                .execute(server.url(), s -> Mono.when(s.send(outbound),
+                        s.receive().doOnNext(message -> echoes.release()).then()))
+                .subscribe();
+    }
+
+    @TearDown
+    public void tearDown() {
+        outbound.onComplete();
+        session.dispose();
+        server.close();
+    }
+
+    @Benchmark
+    public void roundTrip(Counters counters) throws InterruptedException {
+        for (int i = 0; i < BATCH; i++) {
+            outbound.onNext(WebSocketMessage.fromText(PAYLOAD));
+        }
+        echoes.acquire(BATCH);
+        counters.messages += BATCH;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long messages;
+        public long wireBytes;
+        public long cpuNanos;
+
+        private EchoServer server;
+        private long wireBytesStart;
+        private long cpuNanosStart;
+
+        // only this helper takes the benchmark state: JMH 1.21 generates duplicate parameter names when several
+        // helpers of a state depend on the same state
+        @Setup(Level.Iteration)
+        public void start(WebSocketCompressionBenchmark benchmark) {
+            messages = wireBytes = cpuNanos = 0;
+            server = benchmark.server;
+            wireBytesStart = server.wireBytes();
+            cpuNanosStart = processCpuTime();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            wireBytes = server.wireBytes() - wireBytesStart;
+            cpuNanos = processCpuTime() - cpuNanosStart;
+        }
+
+        private static long processCpuTime() {
+            return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                    .getProcessCpuTime();
+        }
+    }
+}
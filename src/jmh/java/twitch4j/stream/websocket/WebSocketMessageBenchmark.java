@@ -0,0 +1,66 @@
+package twitch4j.stream.websocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversions between Netty frames and {@link WebSocketMessage WebSocketMessages}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketMessageBenchmark {
+
+    private static final String PAYLOAD = "{\"type\":\"MESSAGE\",\"data\":{\"topic\":\"whispers.44322889\","
+            + "\"message\":\"{\\\"type\\\":\\\"whisper_received\\\",\\\"data\\\":{\\\"id\\\":41}}\"}}";
+
+    private ByteBuf buffer;
+    private WebSocketFrame frame;
+    private WebSocketMessage message;
+
+    @Setup
+    public void setup() {
+        buffer = Unpooled.unreleasableBuffer(Unpooled.directBuffer()
+                .writeBytes(PAYLOAD.getBytes(StandardCharsets.UTF_8)));
+        frame = new TextWebSocketFrame(buffer);
+        message = WebSocketMessage.fromText(buffer);
+    }
+
+    @Benchmark
+    public WebSocketMessage fromFrame() {
+        return WebSocketMessage.fromFrame(frame);
+    }
+
+    @Benchmark
+    public WebSocketFrame toFrame() {
+        return WebSocketMessage.toFrame(message);
+    }
+
+    @Benchmark
+    public WebSocketMessage fromText() {
+        return WebSocketMessage.fromText(PAYLOAD);
+    }
+
+    @Benchmark
+    public String payloadAsText() {
+        return WebSocketMessage.fromText(buffer.duplicate()).getPayloadAsText();
+    }
+}
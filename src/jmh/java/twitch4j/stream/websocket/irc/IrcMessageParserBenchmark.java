@@ -0,0 +1,87 @@
+package twitch4j.stream.websocket.irc;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import twitch4j.stream.websocket.WebSocketMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a frame of chat lines with {@link IrcMessageParser} against decoding it to a {@code String} and
+ * splitting it. Run with the {@code gc} profiler, {@code gc.alloc.rate.norm} is the allocation per message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(IrcMessageParserBenchmark.LINES)
+public class IrcMessageParserBenchmark {
+
+    static final int LINES = 4;
+
+    private static final String LINE = "@badge-info=;badges=moderator/1;color=#1E90FF;display-name=Someone;emotes=;"
+            + "id=b34ccfc7-4977-403a-8a94-33c6bac34fb8;mod=1;room-id=1337;subscriber=0;tmi-sent-ts=1507246572675;"
+            + "turbo=0;user-id=1337;user-type=mod :someone!someone@someone.tmi.twitch.tv PRIVMSG #channel "
+            + ":Kappa Keepo Kappa\r\n";
+
+    private final IrcMessageParser parser = new IrcMessageParser();
+    private ByteBuf frame;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            builder.append(LINE);
+        }
+        frame = Unpooled.directBuffer().writeBytes(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public int parseCommand(Blackhole blackhole) {
+        return parser.parse(frame, message -> blackhole.consume(message.isCommand("PRIVMSG")));
+    }
+
+    @Benchmark
+    public int parseTagAndParam(Blackhole blackhole) {
+        return parser.parse(frame, message -> {
+            blackhole.consume(message.hasTag("mod"));
+            blackhole.consume(message.isParam(0, "#channel"));
+        });
+    }
+
+    @Benchmark
+    public int parseAndDecodeText(Blackhole blackhole) {
+        return parser.parse(frame, message -> blackhole.consume(message.getTrailing()));
+    }
+
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        for (IrcMessage message : IrcMessageParser.split(frame)) {
+            blackhole.consume(message.isCommand("PRIVMSG"));
+        }
+    }
+
+    @Benchmark
+    public void baselineStringSplit(Blackhole blackhole) {
+        String text = WebSocketMessage.fromText(frame.duplicate()).getPayloadAsText();
+        for (String line : text.split("\r\n")) {
+            String[] parts = line.split(" ", 5);
+            blackhole.consume(parts[2].equals("PRIVMSG"));
+        }
+    }
+}
@@ -3,13 +3,14 @@ package twitch4j.stream.json;
 import lombok.Data;
 
 /**
- * Model representing an error within the http api.
+ * Model representing an error within the http api. Its {@link JsonCodec} is generated at compile time.
  *
  * @author Philipp Heuer [https://github.com/PhilippHeuer]
  * @version %I%, %G%
  * @since 1.0
  */
 @Data
+@GenerateCodec
 public class Error {
     private String error;
     private Integer status;
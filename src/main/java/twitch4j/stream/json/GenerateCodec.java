@@ -0,0 +1,23 @@
+package twitch4j.stream.json;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate a {@link JsonCodec} for the annotated model at compile time, named after the model with a {@code JsonCodec}
+ * suffix and registered as a service, so {@link JsonCodecs} finds it without any configuration.
+ * <p>
+ * The model must have a no-arg constructor, and a getter and a setter for each of its non-static fields, such as the
+ * ones generated by Lombok's {@code @Data}. A field is named in JSON after its {@code @JsonProperty} value, if any.
+ * Fields of types other than strings, primitives and their wrappers are delegated to the Jackson codec of the parser.
+ *
+ * @since 1.0
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+}
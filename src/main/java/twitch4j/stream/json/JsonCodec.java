@@ -0,0 +1,42 @@
+package twitch4j.stream.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import javax.annotation.Nullable;
+
+/**
+ * Reads and writes a model with the Jackson streaming API, without the reflection and type resolution of data binding.
+ * Implementations are generated for the models annotated with {@link GenerateCodec}.
+ *
+ * @param <T> the model type
+ * @since 1.0
+ */
+public interface JsonCodec<T> {
+
+    /**
+     * Return the model class handled by this codec.
+     *
+     * @return the model class
+     */
+    Class<T> type();
+
+    /**
+     * Write a model as a JSON value.
+     *
+     * @param value     the model to write
+     * @param generator the generator to write to
+     * @throws IOException if the generator fails
+     */
+    void write(T value, JsonGenerator generator) throws IOException;
+
+    /**
+     * Read a model from a JSON value. The parser may be positioned before the value or on its first token.
+     *
+     * @param parser the parser to read from
+     * @return the model, or {@code null} for a JSON {@code null}
+     * @throws IOException if the content is not a valid model
+     */
+    @Nullable
+    T read(JsonParser parser) throws IOException;
+}
@@ -0,0 +1,45 @@
+package twitch4j.stream.json;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import javax.annotation.Nullable;
+
+/**
+ * The {@link JsonCodec codecs} registered as services, which includes every codec generated for a
+ * {@link GenerateCodec} model. They are loaded once, on first use.
+ *
+ * @since 1.0
+ */
+public final class JsonCodecs {
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * Return the codec of the given model class.
+     *
+     * @param type the model class
+     * @param <T>  the model type
+     * @return the codec, or {@code null} if the class has none and must go through data binding
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> find(Class<T> type) {
+        return (JsonCodec<T>) Holder.CODECS.get(type);
+    }
+
+    private static class Holder {
+
+        private static final Map<Class<?>, JsonCodec<?>> CODECS = load();
+
+        private static Map<Class<?>, JsonCodec<?>> load() {
+            Map<Class<?>, JsonCodec<?>> codecs = new HashMap<>();
+            for (JsonCodec<?> codec : ServiceLoader.load(JsonCodec.class, JsonCodecs.class.getClassLoader())) {
+                codecs.put(codec.type(), codec);
+            }
+            return Collections.unmodifiableMap(codecs);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package twitch4j.stream.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Metrics} registry keeping every metric in memory, to be read by the application or exported periodically.
+ * <p>
+ * Counters are backed by {@link LongAdder LongAdders} and histograms by {@link LogHistogram LogHistograms}, so
+ * recording never blocks.
+ *
+ * @since 1.0
+ */
+public class InMemoryMetrics implements Metrics {
+
+	private final Map<MetricId, LongAdder> counters = new ConcurrentHashMap<>();
+	private final Map<MetricId, LogHistogram> histograms = new ConcurrentHashMap<>();
+	private final Map<MetricId, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public Counter counter(String name, String... tags) {
+		LongAdder adder = counters.computeIfAbsent(new MetricId(name, tags), id -> new LongAdder());
+		return adder::add;
+	}
+
+	@Override
+	public Histogram histogram(String name, String... tags) {
+		return histograms.computeIfAbsent(new MetricId(name, tags), id -> new LogHistogram());
+	}
+
+	@Override
+	public void gauge(String name, LongSupplier supplier, String... tags) {
+		gauges.put(new MetricId(name, tags), supplier);
+	}
+
+	/**
+	 * Return the current value of a counter.
+	 *
+	 * @param name the metric name
+	 * @param tags alternating tag keys and values
+	 * @return the count, or 0 if the counter does not exist
+	 */
+	public long getCount(String name, String... tags) {
+		LongAdder adder = counters.get(new MetricId(name, tags));
+		return adder == null ? 0 : adder.sum();
+	}
+
+	/**
+	 * Return the current value of a gauge.
+	 *
+	 * @param name the metric name
+	 * @param tags alternating tag keys and values
+	 * @return the sampled value, or 0 if the gauge does not exist
+	 */
+	public long getGauge(String name, String... tags) {
+		LongSupplier supplier = gauges.get(new MetricId(name, tags));
+		return supplier == null ? 0 : supplier.getAsLong();
+	}
+
+	/**
+	 * Return a snapshot of a histogram.
+	 *
+	 * @param name the metric name
+	 * @param tags alternating tag keys and values
+	 * @return the snapshot, empty if the histogram does not exist
+	 */
+	public LogHistogram.Snapshot getHistogram(String name, String... tags) {
+		LogHistogram histogram = histograms.get(new MetricId(name, tags));
+		return (histogram == null ? new LogHistogram() : histogram).snapshot();
+	}
+
+	/**
+	 * Return the current value of every counter and gauge.
+	 *
+	 * @return a map of metric ids to values
+	 */
+	public Map<MetricId, Long> getValues() {
+		Map<MetricId, Long> values = new HashMap<>();
+		counters.forEach((id, adder) -> values.put(id, adder.sum()));
+		gauges.forEach((id, supplier) -> values.put(id, supplier.getAsLong()));
+		return Collections.unmodifiableMap(values);
+	}
+
+	/**
+	 * Return a snapshot of every histogram.
+	 *
+	 * @return a map of metric ids to snapshots
+	 */
+	public Map<MetricId, LogHistogram.Snapshot> getHistograms() {
+		Map<MetricId, LogHistogram.Snapshot> snapshots = new HashMap<>();
+		histograms.forEach((id, histogram) -> snapshots.put(id, histogram.snapshot()));
+		return Collections.unmodifiableMap(snapshots);
+	}
+}
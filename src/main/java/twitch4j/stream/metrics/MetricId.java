@@ -0,0 +1,68 @@
+package twitch4j.stream.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The name and tags identifying a metric.
+ * <p>
+ * This is a value-based class.
+ */
+public final class MetricId {
+
+	private final String name;
+	private final String[] tags;
+	private final int hash;
+
+	MetricId(String name, String... tags) {
+		if (tags.length % 2 != 0) {
+			throw new IllegalArgumentException("Tags must be key and value pairs: " + Arrays.toString(tags));
+		}
+		this.name = name;
+		this.tags = tags.clone();
+		this.hash = 31 * name.hashCode() + Arrays.hashCode(tags);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Return the tags of this metric.
+	 *
+	 * @return an ordered map of tag keys to values
+	 */
+	public Map<String, String> getTags() {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (int i = 0; i < tags.length; i += 2) {
+			map.put(tags[i], tags[i + 1]);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+
+		MetricId other = (MetricId) obj;
+
+		return hash == other.hash && name.equals(other.name) && Arrays.equals(tags, other.tags);
+	}
+
+	@Override
+	public String toString() {
+		return name + getTags();
+	}
+}
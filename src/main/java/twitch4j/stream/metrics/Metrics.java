@@ -0,0 +1,81 @@
+package twitch4j.stream.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A minimal metrics SPI used by the clients to report counters, gauges and histograms.
+ * <p>
+ * Metrics are identified by a name and an optional list of tags, given as alternating keys and values. Instruments
+ * are meant to be looked up once and kept by the caller, so recording a value never goes through this registry on the
+ * hot path. When {@link #isEnabled()} is {@code false}, callers may skip any extra work like reading the clock.
+ *
+ * @see #noop()
+ * @see InMemoryMetrics
+ * @since 1.0
+ */
+public interface Metrics {
+
+	/**
+	 * A registry discarding everything, used by default.
+	 *
+	 * @return a no-op registry
+	 */
+	static Metrics noop() {
+		return NoopMetrics.INSTANCE;
+	}
+
+	/**
+	 * Whether recorded values are kept. Callers may skip timing work when this returns {@code false}.
+	 *
+	 * @return {@code true} if this registry records values
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Get or create a monotonically increasing counter.
+	 *
+	 * @param name the metric name
+	 * @param tags alternating tag keys and values
+	 * @return the counter
+	 */
+	Counter counter(String name, String... tags);
+
+	/**
+	 * Get or create a histogram of non-negative values, usually durations in nanoseconds.
+	 *
+	 * @param name the metric name
+	 * @param tags alternating tag keys and values
+	 * @return the histogram
+	 */
+	Histogram histogram(String name, String... tags);
+
+	/**
+	 * Register a gauge whose value is sampled from the given supplier when read. Registering the same gauge again
+	 * replaces its supplier.
+	 *
+	 * @param name     the metric name
+	 * @param supplier the source of the gauge value
+	 * @param tags     alternating tag keys and values
+	 */
+	void gauge(String name, LongSupplier supplier, String... tags);
+
+	/**
+	 * A monotonically increasing count of events.
+	 */
+	interface Counter {
+
+		void increment(long amount);
+
+		default void increment() {
+			increment(1);
+		}
+	}
+
+	/**
+	 * A distribution of recorded values.
+	 */
+	interface Histogram {
+
+		void record(long value);
+	}
+}
@@ -0,0 +1,38 @@
+package twitch4j.stream.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Metrics} registry discarding everything.
+ */
+final class NoopMetrics implements Metrics {
+
+	static final NoopMetrics INSTANCE = new NoopMetrics();
+
+	private static final Counter COUNTER = amount -> {
+	};
+	private static final Histogram HISTOGRAM = value -> {
+	};
+
+	private NoopMetrics() {
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return false;
+	}
+
+	@Override
+	public Counter counter(String name, String... tags) {
+		return COUNTER;
+	}
+
+	@Override
+	public Histogram histogram(String name, String... tags) {
+		return HISTOGRAM;
+	}
+
+	@Override
+	public void gauge(String name, LongSupplier supplier, String... tags) {
+	}
+}
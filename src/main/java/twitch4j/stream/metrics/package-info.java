@@ -0,0 +1,4 @@
+@NonNullApi
+package twitch4j.stream.metrics;
+
+import reactor.util.annotation.NonNullApi;
@@ -0,0 +1,140 @@
+package twitch4j.stream.resources;
+
+import lombok.Getter;
+import lombok.ToString;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.options.ClientOptions;
+import reactor.ipc.netty.resources.LoopResources;
+
+/**
+ * Event loop configuration shared by HTTP and WebSocket clients.
+ * <p>
+ * By default every client creates its {@code HttpClient} with the global Reactor Netty loop resources. Passing the
+ * same instance to {@link twitch4j.stream.rest.http.client.SimpleHttpClient.Builder#resources(ClientResources)} and
+ * {@link twitch4j.stream.websocket.WebSocketClient.Builder#resources(ClientResources)} makes all of them run on a
+ * single, explicitly sized set of threads, using the native epoll transport when it is available on Linux.
+ * <p>
+ * The native transport is optional and not a dependency of this library: it is only available when
+ * {@code io.netty:netty-transport-native-epoll}, with the classifier of the platform and the Netty version used by
+ * Reactor Netty, is added to the runtime classpath of the application, for instance with
+ * {@code runtimeOnly 'io.netty:netty-transport-native-epoll:4.1.25.Final:linux-x86_64'}. NIO is used otherwise.
+ *
+ * @since 1.0
+ */
+@Getter
+@ToString
+public class ClientResources {
+
+	private final String prefix;
+	private final int eventLoopCount;
+	private final boolean preferNative;
+	private final boolean daemon;
+	@ToString.Exclude
+	private final LoopResources loopResources;
+
+	private ClientResources(Builder builder) {
+		this.prefix = builder.prefix;
+		this.eventLoopCount = builder.eventLoopCount;
+		this.preferNative = builder.preferNative;
+		this.daemon = builder.daemon;
+		this.loopResources = LoopResources.create(prefix, eventLoopCount, daemon);
+	}
+
+	/**
+	 * A {@link twitch4j.stream.resources.ClientResources} builder.
+	 *
+	 * @return a builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Apply these resources to the options of a Reactor Netty client.
+	 *
+	 * @param options the client options being built
+	 */
+	public void configure(ClientOptions.Builder<?> options) {
+		options.loopResources(loopResources).preferNative(preferNative);
+	}
+
+	/**
+	 * Shut the event loops down. Clients using these resources can no longer be used afterwards.
+	 *
+	 * @return a Mono signaling completion once the event loops are terminated
+	 */
+	public Mono<Void> dispose() {
+		return loopResources.disposeLater();
+	}
+
+	/**
+	 * A mutable builder for a {@link twitch4j.stream.resources.ClientResources}.
+	 */
+	public static class Builder {
+
+		private String prefix = "stream4j";
+		private int eventLoopCount = LoopResources.DEFAULT_IO_WORKER_COUNT;
+		private boolean preferNative = true;
+		private boolean daemon = true;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the prefix of the event loop thread names.
+		 *
+		 * @param prefix the thread name prefix
+		 * @return this builder
+		 */
+		public Builder prefix(String prefix) {
+			this.prefix = prefix;
+			return this;
+		}
+
+		/**
+		 * Set the number of event loop threads. Defaults to the number of available processors, with a minimum of 4.
+		 *
+		 * @param eventLoopCount the number of threads
+		 * @return this builder
+		 */
+		public Builder eventLoopCount(int eventLoopCount) {
+			if (eventLoopCount <= 0) {
+				throw new IllegalArgumentException("Event loop count must be positive: " + eventLoopCount);
+			}
+			this.eventLoopCount = eventLoopCount;
+			return this;
+		}
+
+		/**
+		 * Set whether the native epoll transport is used when it is on the classpath. Falls back to NIO otherwise.
+		 *
+		 * @param preferNative {@code true} to prefer the native transport
+		 * @return this builder
+		 */
+		public Builder preferNative(boolean preferNative) {
+			this.preferNative = preferNative;
+			return this;
+		}
+
+		/**
+		 * Set whether event loop threads are daemon threads, which do not prevent the JVM from exiting.
+		 *
+		 * @param daemon {@code true} for daemon threads
+		 * @return this builder
+		 */
+		public Builder daemon(boolean daemon) {
+			this.daemon = daemon;
+			return this;
+		}
+
+		/**
+		 * Build the {@link twitch4j.stream.resources.ClientResources} instance. The event loops are started lazily by
+		 * the first client using them.
+		 *
+		 * @return client resources
+		 */
+		public ClientResources build() {
+			return new ClientResources(this);
+		}
+	}
+}
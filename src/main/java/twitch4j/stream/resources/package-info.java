@@ -0,0 +1,4 @@
+@NonNullApi
+package twitch4j.stream.resources;
+
+import reactor.util.annotation.NonNullApi;
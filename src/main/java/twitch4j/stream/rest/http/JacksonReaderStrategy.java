@@ -1,53 +1,114 @@
 package twitch4j.stream.rest.http;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientResponse;
+import twitch4j.stream.json.JsonCodec;
+import twitch4j.stream.json.JsonCodecs;
 
 /**
  * Read a response into JSON and convert to an Object of type {@code <Res>} using Jackson 2.9.
+ * <p>
+ * An {@link ObjectReader} is built once per response type, so reading a response neither resolves the type nor looks
+ * up its deserializer again. When codecs are enabled, classes with a {@link JsonCodec}, such as the ones generated for
+ * {@link twitch4j.stream.json.GenerateCodec} models, are read by their codec instead of data binding. A codec ignores
+ * the configuration of the {@code ObjectMapper}, such as its deserializers or features, which is why it is opt-in.
  *
  * @param <Res> the type of object in the read response
  */
 public class JacksonReaderStrategy<Res> implements ReaderStrategy<Res> {
 
 	private final ObjectMapper objectMapper;
+	private final boolean codecs;
+	private final Map<Type, BodyReader> readers = new ConcurrentHashMap<>();
 
 	public JacksonReaderStrategy(ObjectMapper objectMapper) {
+		this(objectMapper, false);
+	}
+
+	/**
+	 * Create a reader strategy that may read the classes having a {@link JsonCodec} with it.
+	 *
+	 * @param objectMapper the mapper reading every other class
+	 * @param codecs       whether to read the classes having a codec with it, rather than with the mapper
+	 */
+	public JacksonReaderStrategy(ObjectMapper objectMapper, boolean codecs) {
 		this.objectMapper = objectMapper;
+		this.codecs = codecs;
 	}
 
 	@Override
 	public boolean canRead(@Nullable Class<?> type, @Nullable String contentType) {
+		return type != null && canRead(type, type, contentType);
+	}
+
+	@Override
+	public boolean canRead(@Nullable Class<?> type, Type genericType, @Nullable String contentType) {
 		if (type == null || contentType == null || !contentType.startsWith("application/json")) {
 			return false;
 		}
 
 		// A Route<String> should be read by the FallbackReader
-		return !CharSequence.class.isAssignableFrom(type) && objectMapper.canDeserialize(getJavaType(type));
+		return !CharSequence.class.isAssignableFrom(type) && (readers.containsKey(genericType)
+				|| codecs && JsonCodecs.find(type) != null || objectMapper.canDeserialize(getJavaType(genericType)));
 	}
 
 	@Override
 	public Mono<Res> read(HttpClientResponse response, Class<Res> responseType) {
+		return read(response, responseType, responseType);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Mono<Res> read(HttpClientResponse response, Class<? super Res> responseType, Type genericType) {
 		Objects.requireNonNull(response);
-		Objects.requireNonNull(responseType);
+		Objects.requireNonNull(genericType);
+		BodyReader reader = readers.computeIfAbsent(genericType, this::newReader);
 		return response.receive().aggregate().asByteArray().map(bytes -> {
 			try {
-				return objectMapper.readValue(bytes, responseType);
+				return (Res) reader.read(bytes);
 			} catch (IOException e) {
 				throw Exceptions.propagate(e);
 			}
 		});
 	}
 
+	private BodyReader newReader(Type type) {
+		JsonCodec<?> codec = codecs && type instanceof Class ? JsonCodecs.find((Class<?>) type) : null;
+		if (codec != null) {
+			JsonFactory factory = objectMapper.getFactory();
+			return bytes -> {
+				try (JsonParser parser = factory.createParser(bytes)) {
+					return codec.read(parser);
+				}
+			};
+		}
+		ObjectReader reader = objectMapper.readerFor(getJavaType(type));
+		return reader::readValue;
+	}
+
 	private JavaType getJavaType(Type type) {
 		return objectMapper.getTypeFactory().constructType(type);
 	}
+
+	/**
+	 * Decodes a whole response body, prepared once per response type.
+	 */
+	@FunctionalInterface
+	private interface BodyReader {
+
+		@Nullable
+		Object read(byte[] bytes) throws IOException;
+	}
 }
@@ -1,24 +1,50 @@
 package twitch4j.stream.rest.http;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientRequest;
+import twitch4j.stream.json.JsonCodec;
+import twitch4j.stream.json.JsonCodecs;
 
 /**
  * Write to a request from an {@code Object} to a JSON {@code String} using Jackson 2.9.
+ * <p>
+ * An {@link ObjectWriter} is built once per body class, and bodies are encoded straight to UTF-8 bytes. When codecs are
+ * enabled, classes with a {@link JsonCodec} are written by their codec instead of data binding, ignoring the
+ * configuration of the {@code ObjectMapper}.
  */
 public class JacksonWriterStrategy implements WriterStrategy<Object> {
 
 	private final ObjectMapper objectMapper;
+	private final boolean codecs;
+	private final Map<Class<?>, BodyWriter> writers = new ConcurrentHashMap<>();
 
 	public JacksonWriterStrategy(ObjectMapper objectMapper) {
+		this(objectMapper, false);
+	}
+
+	/**
+	 * Create a writer strategy that may write the classes having a {@link JsonCodec} with it.
+	 *
+	 * @param objectMapper the mapper writing every other class
+	 * @param codecs       whether to write the classes having a codec with it, rather than with the mapper
+	 */
+	public JacksonWriterStrategy(ObjectMapper objectMapper, boolean codecs) {
 		this.objectMapper = objectMapper;
+		this.codecs = codecs;
 	}
 
 	@Override
@@ -26,6 +52,9 @@ public class JacksonWriterStrategy implements WriterStrategy<Object> {
 		if (type == null || contentType == null || !contentType.startsWith("application/json")) {
 			return false;
 		}
+		if (writers.containsKey(type) || codecs && JsonCodecs.find(type) != null) {
+			return true;
+		}
 		Class<?> rawClass = getJavaType(type).getRawClass();
 
 		return (Object.class == rawClass)
@@ -36,15 +65,42 @@ public class JacksonWriterStrategy implements WriterStrategy<Object> {
 	public Mono<Void> write(HttpClientRequest request, @Nullable Object body) {
 		Objects.requireNonNull(request);
 		Objects.requireNonNull(body);
+		BodyWriter writer = writers.computeIfAbsent(body.getClass(), this::newWriter);
 		try {
-			return request.sendString(Mono.just(objectMapper.writeValueAsString(body))).then();
+			return request.sendByteArray(Mono.just(writer.write(body))).then();
 		} catch (Exception e) {
 			throw Exceptions.propagate(e);
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private BodyWriter newWriter(Class<?> type) {
+		JsonCodec<Object> codec = codecs ? (JsonCodec<Object>) JsonCodecs.find(type) : null;
+		if (codec != null) {
+			JsonFactory factory = objectMapper.getFactory();
+			return body -> {
+				ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+				try (JsonGenerator generator = factory.createGenerator(out)) {
+					codec.write(body, generator);
+				}
+				return out.toByteArray();
+			};
+		}
+		ObjectWriter writer = objectMapper.writerFor(type);
+		return writer::writeValueAsBytes;
+	}
+
 	private JavaType getJavaType(Type type) {
 		TypeFactory typeFactory = this.objectMapper.getTypeFactory();
 		return typeFactory.constructType(type);
 	}
+
+	/**
+	 * Encodes a whole request body, prepared once per body class.
+	 */
+	@FunctionalInterface
+	private interface BodyWriter {
+
+		byte[] write(Object body) throws IOException;
+	}
 }
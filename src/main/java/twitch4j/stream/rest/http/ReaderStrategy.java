@@ -1,5 +1,6 @@
 package twitch4j.stream.rest.http;
 
+import java.lang.reflect.Type;
 import javax.annotation.Nullable;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientResponse;
@@ -30,4 +31,32 @@ public interface ReaderStrategy<Res> {
 	 * @return a Mono for the resolved response, according to the given response type
 	 */
 	Mono<Res> read(HttpClientResponse response, Class<Res> responseType);
+
+	/**
+	 * Whether the given generic type is supported by this reader. By default, only its raw class is checked.
+	 *
+	 * @param type        the raw class of the object to check
+	 * @param genericType the full type of the object, with its type arguments if it is generic
+	 * @param contentType the content type for the read
+	 * @return {@code true} if readable, {@code false} otherwise
+	 */
+	default boolean canRead(@Nullable Class<?> type, Type genericType, @Nullable String contentType) {
+		return canRead(type, contentType);
+	}
+
+	/**
+	 * Read from the input message and encode to a single object of a generic type. By default, the type arguments
+	 * are ignored.
+	 *
+	 * @param response     the response to read from
+	 * @param responseType the raw class of the object in the response, such as {@code List} for a {@code List<User>}
+	 * @param genericType  the full type of the object in the response which must have been previously checked via
+	 *                     {@link #canRead(Class, Type, String)}
+	 * @return a Mono for the resolved response, according to the given response type
+	 */
+	@SuppressWarnings("unchecked")
+	default Mono<Res> read(HttpClientResponse response, Class<? super Res> responseType, Type genericType) {
+		// the raw class is the class of Res itself, whenever Res has no type arguments
+		return read(response, (Class<Res>) responseType);
+	}
 }
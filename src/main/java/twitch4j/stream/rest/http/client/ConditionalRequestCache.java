@@ -0,0 +1,189 @@
+package twitch4j.stream.rest.http.client;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+
+/**
+ * Caches the validators and decoded bodies of GET responses per expanded URI and {@code Authorization} header, so a
+ * {@link SimpleHttpClient} can revalidate them with {@code If-None-Match} and {@code If-Modified-Since}. On a
+ * {@code 304 Not Modified}, the cached object is returned without downloading or decoding the body again.
+ * <p>
+ * Cached objects are shared by every exchange revalidating them, so they must not be modified.
+ *
+ * @see SimpleHttpClient.Builder#conditionalRequests(ConditionalRequestCache)
+ * @since 1.0
+ */
+public class ConditionalRequestCache {
+
+	private final Cache<String, Entry> entries;
+	private final LongAdder notModified = new LongAdder();
+
+	private ConditionalRequestCache(Builder builder) {
+		this.entries = CacheBuilder.newBuilder()
+				.maximumSize(builder.maximumSize)
+				.expireAfterAccess(builder.expireAfterAccess.toNanos(), TimeUnit.NANOSECONDS)
+				.build();
+	}
+
+	/**
+	 * A {@link ConditionalRequestCache} builder.
+	 *
+	 * @return a builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Return the number of exchanges answered from this cache after a {@code 304 Not Modified}.
+	 *
+	 * @return the number of successful revalidations
+	 */
+	public long getNotModifiedCount() {
+		return notModified.sum();
+	}
+
+	/**
+	 * Return the number of responses currently cached.
+	 *
+	 * @return the approximate cache size
+	 */
+	public long size() {
+		return entries.size();
+	}
+
+	/**
+	 * Add the validators of the cached response matching the given request, if any, to its headers.
+	 *
+	 * @param uri     the expanded URI of the request
+	 * @param request the request, with all of its headers already set
+	 * @return the revalidation of this exchange
+	 */
+	Revalidation prepare(String uri, HttpClientRequest request) {
+		String authorization = request.requestHeaders().get(HttpHeaderNames.AUTHORIZATION);
+		String key = authorization == null ? uri : uri + '\n' + authorization;
+		Entry entry = entries.getIfPresent(key);
+		if (entry != null) {
+			if (entry.etag != null) {
+				request.header(HttpHeaderNames.IF_NONE_MATCH, entry.etag);
+			}
+			if (entry.lastModified != null) {
+				request.header(HttpHeaderNames.IF_MODIFIED_SINCE, entry.lastModified);
+			}
+		}
+		return new Revalidation(key, entry);
+	}
+
+	/**
+	 * The state of a single conditional exchange, between sending its request and reading its response.
+	 */
+	class Revalidation {
+
+		private final String key;
+		@Nullable
+		private final Entry entry;
+
+		private Revalidation(String key, @Nullable Entry entry) {
+			this.key = key;
+			this.entry = entry;
+		}
+
+		/**
+		 * Return the cached object revalidated by a {@code 304 Not Modified} response.
+		 *
+		 * @param type the expected type of the object
+		 * @param <T>  the expected type of the object
+		 * @return the cached object, or an error if nothing was revalidated
+		 */
+		<T> Mono<T> notModified(Class<T> type) {
+			if (entry == null || !type.isInstance(entry.value)) {
+				return Mono.error(new IllegalStateException("Received 304 Not Modified for " + key +
+						" without a cached " + type.getName()));
+			}
+			notModified.increment();
+			return Mono.just(type.cast(entry.value));
+		}
+
+		/**
+		 * Cache the decoded body of a successful response if it carries validators.
+		 *
+		 * @param headers the response headers
+		 * @param value   the decoded body
+		 */
+		void store(HttpHeaders headers, Object value) {
+			String etag = headers.get(HttpHeaderNames.ETAG);
+			String lastModified = headers.get(HttpHeaderNames.LAST_MODIFIED);
+			if (etag != null || lastModified != null) {
+				entries.put(key, new Entry(etag, lastModified, value));
+			} else if (entry != null) {
+				entries.invalidate(key);
+			}
+		}
+	}
+
+	private static class Entry {
+
+		@Nullable
+		private final String etag;
+		@Nullable
+		private final String lastModified;
+		private final Object value;
+
+		private Entry(@Nullable String etag, @Nullable String lastModified, Object value) {
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * A mutable builder for a {@link ConditionalRequestCache}.
+	 */
+	public static class Builder {
+
+		private long maximumSize = 10_000;
+		private Duration expireAfterAccess = Duration.ofMinutes(10);
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the maximum number of cached responses. The least recently used ones are evicted first.
+		 *
+		 * @param maximumSize the maximum number of entries
+		 * @return this builder
+		 */
+		public Builder maximumSize(long maximumSize) {
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Set how long a cached response that is not revalidated is kept.
+		 *
+		 * @param expireAfterAccess the time to live since the last access
+		 * @return this builder
+		 */
+		public Builder expireAfterAccess(Duration expireAfterAccess) {
+			this.expireAfterAccess = expireAfterAccess;
+			return this;
+		}
+
+		/**
+		 * Build the {@link ConditionalRequestCache} instance.
+		 *
+		 * @return a cache
+		 */
+		public ConditionalRequestCache build() {
+			return new ConditionalRequestCache(this);
+		}
+	}
+}
@@ -13,12 +13,18 @@ import reactor.ipc.netty.http.client.HttpClientResponse;
  */
 public class ExchangeFilter {
 
+	private static final ExchangeListener NOOP_LISTENER = new ExchangeListener() {
+	};
+
 	private final Consumer<HttpClientRequest> requestFilter;
 	private final Consumer<HttpClientResponse> responseFilter;
+	private final ExchangeListener listener;
 
-	private ExchangeFilter(Consumer<HttpClientRequest> requestFilter, Consumer<HttpClientResponse> responseFilter) {
+	private ExchangeFilter(Consumer<HttpClientRequest> requestFilter, Consumer<HttpClientResponse> responseFilter,
+						   ExchangeListener listener) {
 		this.requestFilter = requestFilter;
 		this.responseFilter = responseFilter;
+		this.listener = listener;
 	}
 
 	/**
@@ -62,6 +68,15 @@ public class ExchangeFilter {
 		return responseFilter;
 	}
 
+	/**
+	 * Observe the phases of the exchange, for example to time them.
+	 *
+	 * @return the listener notified of each phase
+	 */
+	public ExchangeListener getListener() {
+		return listener;
+	}
+
 	/**
 	 * A mutable builder for a {@link twitch4j.stream.rest.http.client.ExchangeFilter}.
 	 */
@@ -71,6 +86,7 @@ public class ExchangeFilter {
 		};
 		private Consumer<HttpClientResponse> responseFilter = res -> {
 		};
+		private ExchangeListener listener = NOOP_LISTENER;
 
 		private Builder() {
 		}
@@ -98,13 +114,24 @@ public class ExchangeFilter {
 			return this;
 		}
 
+		/**
+		 * Set the listener notified of the phases of the exchange.
+		 *
+		 * @param listener an {@link ExchangeListener}
+		 * @return this builder
+		 */
+		public Builder listener(ExchangeListener listener) {
+			this.listener = listener;
+			return this;
+		}
+
 		/**
 		 * Build the {@link twitch4j.stream.rest.http.client.ExchangeFilter} instance.
 		 *
 		 * @return an exchange filter
 		 */
 		public ExchangeFilter build() {
-			return new ExchangeFilter(requestFilter, responseFilter);
+			return new ExchangeFilter(requestFilter, responseFilter, listener);
 		}
 	}
 
@@ -0,0 +1,56 @@
+package twitch4j.stream.rest.http.client;
+
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+/**
+ * Callbacks notified as an exchange performed by {@link SimpleHttpClient} goes through its phases. A retried exchange
+ * goes through them again, starting from {@link #onExchangeStart()}.
+ * <p>
+ * Callbacks run on the event loop of the connection, so they must not block.
+ *
+ * @see ExchangeFilter.Builder#listener(ExchangeListener)
+ * @since 1.0
+ */
+public interface ExchangeListener {
+
+	/**
+	 * Called when the exchange is subscribed to, before a connection is requested.
+	 */
+	default void onExchangeStart() {
+	}
+
+	/**
+	 * Called once a connection is ready to write the request, whether it was taken from the pool or newly opened,
+	 * including its TLS handshake.
+	 */
+	default void onConnected() {
+	}
+
+	/**
+	 * Called once the request headers and body are written.
+	 */
+	default void onRequestSent() {
+	}
+
+	/**
+	 * Called when the status and headers of the response are received.
+	 *
+	 * @param response the response, whose body is not read yet
+	 */
+	default void onResponse(HttpClientResponse response) {
+	}
+
+	/**
+	 * Called once the body of a successful response is received and decoded.
+	 */
+	default void onBodyDecoded() {
+	}
+
+	/**
+	 * Called when the exchange fails, including on error responses.
+	 *
+	 * @param error the failure
+	 */
+	default void onError(Throwable error) {
+	}
+}
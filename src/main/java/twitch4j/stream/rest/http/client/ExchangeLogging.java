@@ -0,0 +1,173 @@
+package twitch4j.stream.rest.http.client;
+
+import io.netty.handler.codec.http.HttpMethod;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * How a {@link SimpleHttpClient} logs its exchanges, as {@code key=value} fields under the {@link SimpleHttpClient}
+ * logger category.
+ * <ul>
+ * <li>One exchange out of every {@link Builder#sampleRate(int) sample rate} is logged at DEBUG level.</li>
+ * <li>Failed exchanges and responses with an error status are logged at WARN level, if enabled.</li>
+ * <li>Exchanges slower than the {@link Builder#slowThreshold(Duration) slow threshold} are logged at WARN level, if
+ * set.</li>
+ * </ul>
+ * Whether anything would be logged is decided once, when the client is built. When nothing would, exchanges are not
+ * instrumented at all.
+ *
+ * @since 1.0
+ */
+public class ExchangeLogging {
+
+	private static final Logger log = Loggers.getLogger(SimpleHttpClient.class);
+
+	private final int sampleRate;
+	private final boolean logErrors;
+	@Nullable
+	private final Duration slowThreshold;
+	private final AtomicLong exchanges = new AtomicLong();
+
+	private ExchangeLogging(Builder builder) {
+		this.sampleRate = builder.sampleRate;
+		this.logErrors = builder.logErrors;
+		this.slowThreshold = builder.slowThreshold;
+	}
+
+	/**
+	 * An {@link ExchangeLogging} builder.
+	 *
+	 * @return a builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Log every exchange at DEBUG level, and nothing else.
+	 *
+	 * @return the default logging settings
+	 */
+	public static ExchangeLogging defaults() {
+		return builder().build();
+	}
+
+	/**
+	 * Log nothing.
+	 *
+	 * @return logging settings disabling every log
+	 */
+	public static ExchangeLogging disabled() {
+		return builder().sampleRate(0).build();
+	}
+
+	/**
+	 * Resolve these settings against the current logger levels.
+	 *
+	 * @return these settings, or {@code null} if nothing would ever be logged
+	 */
+	@Nullable
+	ExchangeLogging resolve() {
+		boolean sampling = sampleRate > 0 && log.isDebugEnabled();
+		boolean warnings = (logErrors || slowThreshold != null) && log.isWarnEnabled();
+		return sampling || warnings ? this : null;
+	}
+
+	Mono<HttpClientResponse> apply(HttpMethod method, String uri, Mono<HttpClientResponse> exchange) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			boolean sampled = sampleRate > 0 && exchanges.getAndIncrement() % sampleRate == 0;
+			return exchange.doOnNext(response -> {
+				long elapsed = System.nanoTime() - start;
+				int status = response.status().code();
+				if (logErrors && status >= 400) {
+					log.warn("exchange method={} uri={} status={} latencyMs={}", method, uri, status, millis(elapsed));
+				} else if (slowThreshold != null && elapsed > slowThreshold.toNanos()) {
+					log.warn("slow exchange method={} uri={} status={} latencyMs={}", method, uri, status,
+							millis(elapsed));
+				} else if (sampled) {
+					log.debug("exchange method={} uri={} status={} latencyMs={}", method, uri, status,
+							millis(elapsed));
+				}
+			}).doOnError(t -> {
+				long elapsed = System.nanoTime() - start;
+				if (logErrors) {
+					log.warn("failed exchange method={} uri={} latencyMs={} error={}", method, uri, millis(elapsed),
+							t.toString());
+				} else if (sampled) {
+					log.debug("failed exchange method={} uri={} latencyMs={} error={}", method, uri,
+							millis(elapsed), t.toString());
+				}
+			});
+		});
+	}
+
+	private static long millis(long nanos) {
+		return nanos / 1_000_000;
+	}
+
+	/**
+	 * A mutable builder for an {@link ExchangeLogging}.
+	 */
+	public static class Builder {
+
+		private int sampleRate = 1;
+		private boolean logErrors = false;
+		@Nullable
+		private Duration slowThreshold;
+
+		private Builder() {
+		}
+
+		/**
+		 * Log one exchange out of every {@code sampleRate} at DEBUG level.
+		 *
+		 * @param sampleRate 1 to log every exchange, 0 to log none
+		 * @return this builder
+		 */
+		public Builder sampleRate(int sampleRate) {
+			if (sampleRate < 0) {
+				throw new IllegalArgumentException("Sample rate must not be negative: " + sampleRate);
+			}
+			this.sampleRate = sampleRate;
+			return this;
+		}
+
+		/**
+		 * Log every failed exchange and every response with a 4xx or 5xx status at WARN level, whether sampled or not.
+		 *
+		 * @param logErrors whether errors are always logged
+		 * @return this builder
+		 */
+		public Builder logErrors(boolean logErrors) {
+			this.logErrors = logErrors;
+			return this;
+		}
+
+		/**
+		 * Log every exchange whose response takes longer than the given threshold at WARN level, whether sampled or
+		 * not.
+		 *
+		 * @param slowThreshold the threshold, or {@code null} to not log slow exchanges
+		 * @return this builder
+		 */
+		public Builder slowThreshold(@Nullable Duration slowThreshold) {
+			this.slowThreshold = slowThreshold;
+			return this;
+		}
+
+		/**
+		 * Build the {@link ExchangeLogging} instance.
+		 *
+		 * @return logging settings
+		 */
+		public ExchangeLogging build() {
+			return new ExchangeLogging(this);
+		}
+	}
+}
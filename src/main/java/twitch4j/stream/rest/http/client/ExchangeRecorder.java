@@ -0,0 +1,246 @@
+package twitch4j.stream.rest.http.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * Captures every HTTP exchange of a {@link SimpleHttpClient} to a compact binary file, which an
+ * {@link ExchangeReplayServer} serves back without any network access to Twitch.
+ * <p>
+ * The recorder works at the transport level, below the reader and writer strategies, so the captured bodies are the
+ * exact bytes on the wire. A recording is a header ({@code S4JR} and a version) followed by one record per exchange:
+ * its length, then the method, URI, headers and body of the request, then the status, headers and body of the
+ * response. Strings are UTF-8 with a 16-bit length, bodies have a 32-bit length, and header lists a 16-bit count.
+ * The values of {@link Builder#redact(String...) redacted headers}, {@code Authorization} by default, are not written.
+ *
+ * @see SimpleHttpClient.Builder#recorder(ExchangeRecorder)
+ * @since 1.0
+ */
+public class ExchangeRecorder implements Closeable {
+
+	static final int MAGIC = 0x53344A52;
+	static final int VERSION = 1;
+
+	private static final String REDACTED = "<redacted>";
+
+	private final FileChannel channel;
+	private final Set<String> redacted;
+	private final AtomicLong recorded = new AtomicLong();
+
+	private ExchangeRecorder(Builder builder) throws IOException {
+		this.channel = FileChannel.open(builder.path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+		this.redacted = builder.redacted;
+		ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION);
+		header.flip();
+		channel.write(header);
+	}
+
+	/**
+	 * An {@link ExchangeRecorder} builder.
+	 *
+	 * @param path the recording file, replaced if it exists
+	 * @return a builder
+	 */
+	public static Builder builder(Path path) {
+		return new Builder(path);
+	}
+
+	/**
+	 * Return the number of exchanges written so far.
+	 *
+	 * @return the number of records
+	 */
+	public long getRecorded() {
+		return recorded.get();
+	}
+
+	/**
+	 * Create the handler capturing the exchanges of a connection. A new handler is needed for each connection.
+	 *
+	 * @return a handler to add to the pipeline after the HTTP codec
+	 */
+	ChannelDuplexHandler newHandler() {
+		return new RecordingHandler();
+	}
+
+	/**
+	 * Stop recording and close the file. Exchanges completing afterwards are not recorded.
+	 */
+	@Override
+	public synchronized void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private synchronized void write(ByteBuf record) {
+		if (!channel.isOpen()) {
+			return;
+		}
+		try {
+			ByteBuffer length = ByteBuffer.allocate(4).putInt(record.readableBytes());
+			length.flip();
+			channel.write(new ByteBuffer[]{length, record.nioBuffer()});
+			recorded.incrementAndGet();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeHeaders(DataOutput out, HttpHeaders headers) throws IOException {
+		out.writeShort(headers.size());
+		for (Map.Entry<String, String> header : headers) {
+			writeString(out, header.getKey());
+			writeString(out, redacted.contains(header.getKey()) ? REDACTED : header.getValue());
+		}
+	}
+
+	static void writeString(DataOutput out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > 0xFFFF) {
+			throw new IOException("String too long to record: " + bytes.length + " bytes");
+		}
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Accumulates the request and response of the current exchange of a connection, and writes them once the response
+	 * is complete. Only called on the event loop of the connection.
+	 */
+	private class RecordingHandler extends ChannelDuplexHandler {
+
+		@Nullable
+		private ByteBuf record;
+		private ByteBuf body = Unpooled.buffer(0);
+
+		@Override
+		public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+			if (msg instanceof HttpRequest) {
+				HttpRequest request = (HttpRequest) msg;
+				reset();
+				record = Unpooled.buffer(1024);
+				ByteBufOutputStream out = new ByteBufOutputStream(record);
+				writeString(out, request.method().name());
+				writeString(out, request.uri());
+				writeHeaders(out, request.headers());
+			}
+			if (record != null) {
+				// reactor-netty writes the body as plain buffers, which the HTTP encoder accepts as content
+				ByteBuf content = msg instanceof HttpContent ? ((HttpContent) msg).content()
+						: msg instanceof ByteBuf ? (ByteBuf) msg : null;
+				if (content != null) {
+					body.writeBytes(content, content.readerIndex(), content.readableBytes());
+				}
+			}
+			super.write(ctx, msg, promise);
+		}
+
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+			ByteBuf record = this.record;
+			if (record != null) {
+				if (msg instanceof HttpResponse) {
+					HttpResponse response = (HttpResponse) msg;
+					appendBody(record);
+					ByteBufOutputStream out = new ByteBufOutputStream(record);
+					out.writeShort(response.status().code());
+					writeHeaders(out, response.headers());
+				}
+				if (msg instanceof HttpContent) {
+					ByteBuf content = ((HttpContent) msg).content();
+					body.writeBytes(content, content.readerIndex(), content.readableBytes());
+				}
+				if (msg instanceof LastHttpContent) {
+					appendBody(record);
+					ExchangeRecorder.this.write(record);
+					reset();
+				}
+			}
+			super.channelRead(ctx, msg);
+		}
+
+		@Override
+		public void handlerRemoved(ChannelHandlerContext ctx) {
+			reset();
+		}
+
+		private void appendBody(ByteBuf record) {
+			record.writeInt(body.readableBytes());
+			record.writeBytes(body);
+			body.clear();
+		}
+
+		private void reset() {
+			record = null;
+			body = Unpooled.buffer(0);
+		}
+	}
+
+	/**
+	 * A mutable builder for an {@link ExchangeRecorder}.
+	 */
+	public static class Builder {
+
+		private final Path path;
+		private final Set<String> redacted = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+		private Builder(Path path) {
+			this.path = path;
+			redacted.add("Authorization");
+		}
+
+		/**
+		 * Record the given headers without their values, so credentials do not end up in the recording.
+		 *
+		 * @param headerNames the names of the headers to redact, in addition to {@code Authorization}
+		 * @return this builder
+		 */
+		public Builder redact(String... headerNames) {
+			for (String headerName : headerNames) {
+				redacted.add(headerName);
+			}
+			return this;
+		}
+
+		/**
+		 * Create the {@link ExchangeRecorder} instance, truncating its file.
+		 *
+		 * @return a recorder
+		 * @throws UncheckedIOException if the file cannot be created
+		 */
+		public ExchangeRecorder build() {
+			try {
+				return new ExchangeRecorder(this);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
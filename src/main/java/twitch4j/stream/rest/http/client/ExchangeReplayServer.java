@@ -0,0 +1,213 @@
+package twitch4j.stream.rest.http.client;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+import reactor.ipc.netty.http.server.HttpServerRequest;
+import reactor.ipc.netty.http.server.HttpServerResponse;
+
+/**
+ * Serves the exchanges captured by an {@link ExchangeRecorder} on a loopback port, so a {@link SimpleHttpClient}
+ * pointed at {@link #getBaseUrl()} gets production-shaped responses without reaching Twitch.
+ * <p>
+ * The recording is memory-mapped and indexed once. Each request is answered with the recorded response to the same
+ * method and URI, written straight from the mapped file without copying or decoding. When a request was recorded
+ * several times, its responses are served in turn, wrapping around. Requests never recorded get a
+ * {@code 404 Not Found}. The recorded request headers and bodies are not compared.
+ *
+ * @since 1.0
+ */
+public class ExchangeReplayServer implements Closeable {
+
+	private final Map<String, Exchanges> exchanges;
+	private final NettyContext context;
+	private final AtomicLong served = new AtomicLong();
+	private final AtomicLong missed = new AtomicLong();
+
+	private ExchangeReplayServer(Path recording) throws IOException {
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(recording, StandardOpenOption.READ)) {
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		this.exchanges = index(mapped);
+		this.context = HttpServer.create("127.0.0.1", 0)
+				.newHandler(this::respond)
+				.block();
+	}
+
+	/**
+	 * Start serving the given recording.
+	 *
+	 * @param recording a file written by an {@link ExchangeRecorder}
+	 * @return a running server
+	 * @throws UncheckedIOException if the file cannot be read or is not a recording
+	 */
+	public static ExchangeReplayServer start(Path recording) {
+		try {
+			return new ExchangeReplayServer(recording);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Return the URL of this server. The recorded URIs include the path of the recorded base URL, such as
+	 * {@code /helix}, which must be appended to this one.
+	 *
+	 * @return the scheme, host and port of this server
+	 */
+	public String getBaseUrl() {
+		return "http://127.0.0.1:" + context.address().getPort();
+	}
+
+	/**
+	 * Return the number of requests answered with a recorded response.
+	 *
+	 * @return the number of replayed responses
+	 */
+	public long getServed() {
+		return served.get();
+	}
+
+	/**
+	 * Return the number of requests that were never recorded.
+	 *
+	 * @return the number of {@code 404 Not Found} responses
+	 */
+	public long getMissed() {
+		return missed.get();
+	}
+
+	@Override
+	public void close() {
+		context.dispose();
+		context.onClose().block();
+	}
+
+	private Publisher<Void> respond(HttpServerRequest request, HttpServerResponse response) {
+		Exchanges recorded = exchanges.get(key(request.method().name(), request.uri()));
+		if (recorded == null) {
+			missed.incrementAndGet();
+			return response.status(HttpResponseStatus.NOT_FOUND).send();
+		}
+		served.incrementAndGet();
+		Exchange exchange = recorded.next();
+		response.status(exchange.status);
+		for (int i = 0; i < exchange.headers.length; i += 2) {
+			response.header(exchange.headers[i], exchange.headers[i + 1]);
+		}
+		response.header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(exchange.body.remaining()));
+		return response.send(Mono.just(Unpooled.wrappedBuffer(exchange.body.duplicate())));
+	}
+
+	private static Map<String, Exchanges> index(ByteBuffer recording) throws IOException {
+		if (recording.remaining() < 8 || recording.getInt() != ExchangeRecorder.MAGIC
+				|| recording.getInt() != ExchangeRecorder.VERSION) {
+			throw new IOException("Not an exchange recording");
+		}
+		Map<String, Exchanges> index = new HashMap<>();
+		while (recording.remaining() >= 4) {
+			int length = recording.getInt();
+			if (length > recording.remaining()) {
+				// the last record was cut short by the end of the recording
+				break;
+			}
+			int end = recording.position() + length;
+			String method = readString(recording);
+			String uri = readString(recording);
+			readHeaders(recording);
+			skipBody(recording);
+			int status = recording.getShort() & 0xFFFF;
+			String[] headers = readHeaders(recording);
+			int bodyLength = recording.getInt();
+			ByteBuffer body = recording.slice();
+			body.limit(bodyLength);
+			recording.position(end);
+			index.computeIfAbsent(key(method, uri), k -> new Exchanges())
+					.responses.add(new Exchange(HttpResponseStatus.valueOf(status), headers, body));
+		}
+		return index;
+	}
+
+	private static String key(String method, String uri) {
+		return method + ' ' + uri;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Read a header list, dropping the framing headers, which depend on how the response is written.
+	 */
+	private static String[] readHeaders(ByteBuffer buffer) {
+		int count = buffer.getShort() & 0xFFFF;
+		List<String> headers = new ArrayList<>(count * 2);
+		for (int i = 0; i < count; i++) {
+			String name = readString(buffer);
+			String value = readString(buffer);
+			if (!HttpHeaderNames.CONTENT_LENGTH.contentEqualsIgnoreCase(name)
+					&& !HttpHeaderNames.TRANSFER_ENCODING.contentEqualsIgnoreCase(name)
+					&& !HttpHeaderNames.CONNECTION.contentEqualsIgnoreCase(name)) {
+				headers.add(name);
+				headers.add(value);
+			}
+		}
+		return headers.toArray(new String[0]);
+	}
+
+	private static void skipBody(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		buffer.position(buffer.position() + length);
+	}
+
+	/**
+	 * The recorded responses to the same method and URI.
+	 */
+	private static class Exchanges {
+
+		private final List<Exchange> responses = new ArrayList<>(1);
+		private final AtomicInteger next = new AtomicInteger();
+
+		private Exchange next() {
+			return responses.get(Math.floorMod(next.getAndIncrement(), responses.size()));
+		}
+	}
+
+	private static class Exchange {
+
+		private final HttpResponseStatus status;
+		private final String[] headers;
+		/**
+		 * The body, a read-only slice of the mapped recording.
+		 */
+		private final ByteBuffer body;
+
+		private Exchange(HttpResponseStatus status, String[] headers, ByteBuffer body) {
+			this.status = status;
+			this.headers = headers;
+			this.body = body;
+		}
+	}
+}
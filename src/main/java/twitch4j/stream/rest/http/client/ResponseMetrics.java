@@ -0,0 +1,53 @@
+package twitch4j.stream.rest.http.client;
+
+import io.netty.handler.codec.http.HttpMethod;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import twitch4j.stream.metrics.Metrics;
+
+/**
+ * The response instruments of a {@link twitch4j.stream.rest.http.client.SimpleHttpClient}, looked up in the registry
+ * once per method and status class, so recording a response does not go through the registry.
+ */
+final class ResponseMetrics {
+
+	private static final String[] STATUS_CLASSES = {"other", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+	private final Metrics metrics;
+	private final Map<HttpMethod, Instruments[]> instruments = new ConcurrentHashMap<>();
+
+	ResponseMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	void record(HttpMethod method, int status, long latency) {
+		Instruments[] byClass = instruments.get(method);
+		if (byClass == null) {
+			byClass = new Instruments[STATUS_CLASSES.length];
+			Instruments[] existing = instruments.putIfAbsent(method, byClass);
+			if (existing != null) {
+				byClass = existing;
+			}
+		}
+		int statusClass = status >= 100 && status < 600 ? status / 100 : 0;
+		Instruments instrument = byClass[statusClass];
+		if (instrument == null) {
+			// racing threads get the same instruments from the registry
+			instrument = new Instruments(metrics, method.name(), STATUS_CLASSES[statusClass]);
+			byClass[statusClass] = instrument;
+		}
+		instrument.responses.increment();
+		instrument.latency.record(latency);
+	}
+
+	private static class Instruments {
+
+		private final Metrics.Counter responses;
+		private final Metrics.Histogram latency;
+
+		private Instruments(Metrics metrics, String method, String status) {
+			this.responses = metrics.counter("stream4j.http.client.responses", "method", method, "status", status);
+			this.latency = metrics.histogram("stream4j.http.client.latency", "method", method, "status", status);
+		}
+	}
+}
@@ -3,24 +3,24 @@ package twitch4j.stream.rest.http.client;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.logging.Level;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.SignalType;
 import reactor.ipc.netty.http.client.HttpClient;
 import reactor.ipc.netty.http.client.HttpClientResponse;
-import reactor.util.Logger;
-import reactor.util.Loggers;
 import twitch4j.stream.json.Error;
+import twitch4j.stream.metrics.Metrics;
 import twitch4j.stream.rest.http.ReaderStrategy;
 import twitch4j.stream.rest.http.WriterStrategy;
+import twitch4j.stream.resources.ClientResources;
 
 /**
  * A simple wrapper over <a href="https://github.com/reactor/reactor-netty">Reactor Netty</a> to perform web requests on
@@ -32,13 +32,29 @@ import twitch4j.stream.rest.http.WriterStrategy;
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 public class SimpleHttpClient {
 
-	private static final Logger httpLogger = Loggers.getLogger(SimpleHttpClient.class);
-
 	private final HttpClient httpClient;
 	private final String baseUrl;
 	private final HttpHeaders defaultHeaders;
 	private final List<WriterStrategy<?>> writerStrategies;
 	private final List<ReaderStrategy<?>> readerStrategies;
+	private final Metrics metrics;
+	/**
+	 * Return the logging settings of this client.
+	 *
+	 * @return the settings, or {@code null} if exchanges are not logged at the current logger levels
+	 */
+	@Nullable
+	private final ExchangeLogging logging;
+	/**
+	 * Return the cache used to revalidate GET responses.
+	 *
+	 * @return the cache, or {@code null} if requests are not conditional
+	 */
+	@Nullable
+	private final ConditionalRequestCache conditionalCache;
+	@Nullable
+	@Getter(AccessLevel.NONE)
+	private final ResponseMetrics responseMetrics;
 
 	/**
 	 * Obtain a {@link twitch4j.stream.rest.http.client.SimpleHttpClient} builder.
@@ -80,14 +96,41 @@ public class SimpleHttpClient {
 	 */
 	public <R, T> Mono<T> exchange(HttpMethod method, String uri, @Nullable R body, Class<T> responseType,
 								   ExchangeFilter exchangeFilter) {
+		return exchange(method, uri, body, responseType, responseType, exchangeFilter);
+	}
+
+	/**
+	 * Exchange a request for a {@link Mono} response of the specified generic type, such as a {@code List<User>}.
+	 *
+	 * @param method         the HTTP method
+	 * @param uri            the URI used in this request. Will be appended to the base URI, if exists
+	 * @param body           an object representing the body of the request
+	 * @param responseType   the raw class of the desired response type
+	 * @param genericType    the full desired response type, with its type arguments
+	 * @param exchangeFilter the filter to use while executing this request
+	 * @param <R>            the type of the request body, can be <code>null</code>
+	 * @param <T>            the type of the response body, can be {@link Void}
+	 * @return a {@link Mono} of {@link T} with the response
+	 * @see #exchange(HttpMethod, String, Object, Class, ExchangeFilter)
+	 */
+	public <R, T> Mono<T> exchange(HttpMethod method, String uri, @Nullable R body, Class<T> responseType,
+								   Type genericType, ExchangeFilter exchangeFilter) {
 		Objects.requireNonNull(method);
 		Objects.requireNonNull(uri);
 		Objects.requireNonNull(responseType);
+		Objects.requireNonNull(genericType);
 
-		return httpClient.request(method, baseUrl + uri,
+		ExchangeListener listener = exchangeFilter.getListener();
+		AtomicReference<ConditionalRequestCache.Revalidation> revalidation =
+				conditionalCache != null && method == HttpMethod.GET ? new AtomicReference<>() : null;
+		Mono<HttpClientResponse> exchange = httpClient.request(method, baseUrl + uri,
 				request -> {
+					listener.onConnected();
 					defaultHeaders.forEach(entry -> request.header(entry.getKey(), entry.getValue()));
 					exchangeFilter.getRequestFilter().accept(request);
+					if (revalidation != null) {
+						revalidation.set(conditionalCache.prepare(uri, request));
+					}
 
 					request.failOnClientError(false); // required to handle 400 errors ourselves
 					request.failOnServerError(false); // and 500 errors
@@ -97,33 +140,55 @@ public class SimpleHttpClient {
 							.filter(s -> s.canWrite(body != null ? body.getClass() : null, contentType))
 							.findFirst()
 							.map(SimpleHttpClient::<R>cast)
-							.map(s -> s.write(request, body))
+							.map(s -> s.write(request, body).doOnSuccess(v -> listener.onRequestSent()))
 							.orElseGet(() -> Mono.error(new RuntimeException("No strategies to write this request: " +
 									body + " - " + contentType)));
-				})
-				.log(httpLogger, Level.FINE, false, SignalType.ON_NEXT, SignalType.ON_ERROR)
-				.flatMap(response -> {
-					exchangeFilter.getResponseFilter().accept(response);
-
-					String contentType = response.responseHeaders().get(HttpHeaderNames.CONTENT_TYPE);
-					Optional<ReaderStrategy<?>> readerStrategy = readerStrategies.stream()
-							.filter(s -> s.canRead(responseType, contentType))
-							.findFirst();
-
-					int responseStatus = response.status().code();
-					if (responseStatus >= 400 && responseStatus < 600) {
-						return readerStrategy.map(SimpleHttpClient::<Error>cast)
-								.map(s -> s.read(response, Error.class))
-								.map(s -> Mono.<T>error(clientException(response, s)))
-								.orElseThrow(() -> clientException(response, Mono.empty()));
-					} else {
-						return readerStrategy.map(SimpleHttpClient::<T>cast)
-								.map(s -> s.read(response, responseType))
-								.orElseGet(() -> Mono.error(
-										new RuntimeException("No strategies to read this response: " +
-												responseType + " - " + contentType)));
-					}
 				});
+
+		if (logging != null) {
+			exchange = logging.apply(method, uri, exchange);
+		}
+
+		if (responseMetrics != null) {
+			Mono<HttpClientResponse> source = exchange;
+			exchange = Mono.defer(() -> {
+				long start = System.nanoTime();
+				return source.doOnNext(response -> responseMetrics.record(method, response.status().code(),
+						System.nanoTime() - start));
+			});
+		}
+
+		return exchange.flatMap(response -> {
+			listener.onResponse(response);
+			exchangeFilter.getResponseFilter().accept(response);
+
+			String contentType = response.responseHeaders().get(HttpHeaderNames.CONTENT_TYPE);
+			Optional<ReaderStrategy<?>> readerStrategy = readerStrategies.stream()
+					.filter(s -> s.canRead(responseType, genericType, contentType))
+					.findFirst();
+
+			int responseStatus = response.status().code();
+			ConditionalRequestCache.Revalidation conditional = revalidation != null ? revalidation.get() : null;
+			if (conditional != null && responseStatus == 304) {
+				return response.receive().then(Mono.defer(() -> conditional.notModified(responseType)));
+			} else if (responseStatus >= 400 && responseStatus < 600) {
+				return readerStrategy.map(SimpleHttpClient::<Error>cast)
+						.map(s -> s.read(response, Error.class))
+						.map(s -> Mono.<T>error(clientException(response, s)))
+						.orElseThrow(() -> clientException(response, Mono.empty()));
+			} else {
+				return readerStrategy.map(SimpleHttpClient::<T>cast)
+						.map(s -> conditional == null ? s.read(response, responseType, genericType)
+								: s.read(response, responseType, genericType)
+										.doOnNext(value -> conditional.store(response.responseHeaders(), value)))
+						.orElseGet(() -> Mono.error(
+								new RuntimeException("No strategies to read this response: " +
+										responseType + " - " + contentType)));
+			}
+		})
+				.doOnSubscribe(s -> listener.onExchangeStart())
+				.doOnSuccess(value -> listener.onBodyDecoded())
+				.doOnError(listener::onError);
 	}
 
 	private ClientException clientException(HttpClientResponse response, Mono<Error> errorResponse) {
@@ -169,6 +234,51 @@ public class SimpleHttpClient {
 		 */
 		Builder readerStrategy(ReaderStrategy<?> strategy);
 
+		/**
+		 * Run the client on the given event loops instead of the global Reactor Netty ones.
+		 *
+		 * @param resources the event loop configuration, possibly shared with other clients, or {@code null} for the
+		 *                  global event loops, the default
+		 * @return this builder
+		 */
+		Builder resources(@Nullable ClientResources resources);
+
+		/**
+		 * Report the count and latency of responses, by method and status class, to the given registry.
+		 *
+		 * @param metrics the metrics registry, {@link Metrics#noop()} by default
+		 * @return this builder
+		 */
+		Builder metrics(Metrics metrics);
+
+		/**
+		 * Configure how exchanges are logged. Whether anything is logged is decided once, when the client is built,
+		 * from the settings and the level of the {@link SimpleHttpClient} logger.
+		 *
+		 * @param logging the logging settings, {@link ExchangeLogging#defaults()} by default
+		 * @return this builder
+		 */
+		Builder logging(ExchangeLogging logging);
+
+		/**
+		 * Make GET requests conditional: responses carrying an {@code ETag} or {@code Last-Modified} header are cached
+		 * with their decoded body and revalidated by the next request to the same URI, which returns the cached body on
+		 * a {@code 304 Not Modified}.
+		 *
+		 * @param cache the cache of revalidated responses, or {@code null} to disable conditional requests
+		 * @return this builder
+		 */
+		Builder conditionalRequests(@Nullable ConditionalRequestCache cache);
+
+		/**
+		 * Capture every exchange, headers and bodies included, to the given recorder, which an
+		 * {@link ExchangeReplayServer} can serve back later.
+		 *
+		 * @param recorder the recorder, or {@code null} to disable recording, the default
+		 * @return this builder
+		 */
+		Builder recorder(@Nullable ExchangeRecorder recorder);
+
 		/**
 		 * Build the {@link twitch4j.stream.rest.http.client.SimpleHttpClient} instance.
 		 *
@@ -4,20 +4,33 @@ import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpHeaders;
 import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.Nullable;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import reactor.ipc.netty.http.client.HttpClient;
+import twitch4j.stream.metrics.Metrics;
 import twitch4j.stream.rest.http.ReaderStrategy;
 import twitch4j.stream.rest.http.WriterStrategy;
+import twitch4j.stream.resources.ClientResources;
 
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
 class SimpleHttpClientBuilder implements SimpleHttpClient.Builder {
 
+	private static final String RECORDER_HANDLER = "stream4j.exchangeRecorder";
+
 	private final HttpHeaders headers = new DefaultHttpHeaders();
 	private final List<ReaderStrategy<?>> readerStrategies = new ArrayList<>();
 	private final List<WriterStrategy<?>> writerStrategies = new ArrayList<>();
 	private String baseUrl = "";
+	@Nullable
+	private ClientResources resources;
+	private Metrics metrics = Metrics.noop();
+	private ExchangeLogging logging = ExchangeLogging.defaults();
+	@Nullable
+	private ConditionalRequestCache conditionalCache;
+	@Nullable
+	private ExchangeRecorder recorder;
 
 	@Override
 	public SimpleHttpClient.Builder baseUrl(String baseUrl) {
@@ -43,6 +56,36 @@ class SimpleHttpClientBuilder implements SimpleHttpClient.Builder {
 		return this;
 	}
 
+	@Override
+	public SimpleHttpClient.Builder resources(@Nullable ClientResources resources) {
+		this.resources = resources;
+		return this;
+	}
+
+	@Override
+	public SimpleHttpClient.Builder metrics(Metrics metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+
+	@Override
+	public SimpleHttpClient.Builder logging(ExchangeLogging logging) {
+		this.logging = logging;
+		return this;
+	}
+
+	@Override
+	public SimpleHttpClient.Builder conditionalRequests(@Nullable ConditionalRequestCache cache) {
+		this.conditionalCache = cache;
+		return this;
+	}
+
+	@Override
+	public SimpleHttpClient.Builder recorder(@Nullable ExchangeRecorder recorder) {
+		this.recorder = recorder;
+		return this;
+	}
+
 	@Override
 	public SimpleHttpClient build() {
 		if (baseUrl == null || baseUrl.equals("")) {
@@ -50,6 +93,18 @@ class SimpleHttpClientBuilder implements SimpleHttpClient.Builder {
 		} else if (!baseUrl.matches("(http[s]?)://(.+)")) {
 			throw new IllegalArgumentException("Base URL must contain a URL");
 		}
-		return new SimpleHttpClient(HttpClient.create(options -> options.compression(true)), baseUrl, headers, writerStrategies, readerStrategies);
+		ClientResources resources = this.resources;
+		ExchangeRecorder recorder = this.recorder;
+		HttpClient httpClient = HttpClient.create(options -> {
+			options.compression(true);
+			if (resources != null) {
+				resources.configure(options);
+			}
+			if (recorder != null) {
+				options.afterNettyContextInit(context -> context.addHandlerFirst(RECORDER_HANDLER, recorder.newHandler()));
+			}
+		});
+		return new SimpleHttpClient(httpClient, baseUrl, headers, writerStrategies, readerStrategies, metrics,
+				logging.resolve(), conditionalCache, metrics.isEnabled() ? new ResponseMetrics(metrics) : null);
 	}
 }
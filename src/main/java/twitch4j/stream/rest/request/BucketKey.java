@@ -37,6 +37,10 @@ public final class BucketKey {
 		return new BucketKey(uriTemplate, completeUri);
 	}
 
+	String getUriTemplate() {
+		return uriTemplate;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(uriTemplate, majorParam);
@@ -55,4 +59,9 @@ public final class BucketKey {
 
 		return uriTemplate.equals(bucket.uriTemplate) && Objects.equals(majorParam, bucket.majorParam);
 	}
+
+	@Override
+	public String toString() {
+		return majorParam == null ? uriTemplate : uriTemplate + " " + majorParam;
+	}
 }
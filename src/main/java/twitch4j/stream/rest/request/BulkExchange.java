@@ -0,0 +1,251 @@
+package twitch4j.stream.rest.request;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+/**
+ * Exchanges the requests of a publisher with at most a given number of them in flight overall, and per bucket.
+ * <p>
+ * Requests are pulled one at a time, never more than the results requested downstream. A request whose bucket is at
+ * its limit is set aside, so the following requests for other buckets are still sent. At most {@code concurrency}
+ * requests are set aside, after which pulling stops until one of them is sent. When results are emitted in order,
+ * at most {@code concurrency} requests are pulled and not yet emitted, whether set aside, in flight or completed
+ * behind a slower one.
+ *
+ * @param <T> the response type
+ * @see Router#exchangeAll(Publisher, int, int, boolean)
+ */
+class BulkExchange<T> extends BaseSubscriber<TwitchRequest<T>> {
+
+	private final FluxSink<ExchangeResult<T>> sink;
+	private final Function<TwitchRequest<T>, BucketKey> bucketOf;
+	private final Function<TwitchRequest<T>, Mono<ExchangeResult<T>>> exchange;
+	private final int concurrency;
+	private final int bucketConcurrency;
+	private final boolean ordered;
+	private final Disposable.Composite exchanges = Disposables.composite();
+	private final Queue<ExchangeResult<T>> outbox = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger emitting = new AtomicInteger();
+
+	// guarded by this
+	private final List<Pending> waiting = new LinkedList<>();
+	private final Map<BucketKey, Integer> inFlightByBucket = new HashMap<>();
+	private final Map<Long, ExchangeResult<T>> completed = new HashMap<>();
+	private long credit;
+	private long nextSequence;
+	private long nextToEmit;
+	private int inFlight;
+	private int unfinished;
+	private boolean subscribed;
+	private boolean pulling;
+	private boolean done;
+
+	private BulkExchange(FluxSink<ExchangeResult<T>> sink, Function<TwitchRequest<T>, BucketKey> bucketOf,
+						 Function<TwitchRequest<T>, Mono<ExchangeResult<T>>> exchange, int concurrency,
+						 int bucketConcurrency, boolean ordered) {
+		this.sink = sink;
+		this.bucketOf = bucketOf;
+		this.exchange = exchange;
+		this.concurrency = concurrency;
+		this.bucketConcurrency = bucketConcurrency;
+		this.ordered = ordered;
+	}
+
+	/**
+	 * Exchange every given request.
+	 *
+	 * @param requests          the requests to exchange
+	 * @param bucketOf          the function giving the bucket of a request
+	 * @param exchange          the function exchanging a request, never failing
+	 * @param concurrency       the maximum number of requests in flight at once
+	 * @param bucketConcurrency the maximum number of requests of the same bucket in flight at once
+	 * @param ordered           {@code true} to emit results in the order of the requests
+	 * @param <T>               the response type
+	 * @return a {@code Flux} of the result of each request
+	 */
+	static <T> Flux<ExchangeResult<T>> create(Publisher<TwitchRequest<T>> requests,
+											  Function<TwitchRequest<T>, BucketKey> bucketOf,
+											  Function<TwitchRequest<T>, Mono<ExchangeResult<T>>> exchange,
+											  int concurrency, int bucketConcurrency, boolean ordered) {
+		return Flux.create(sink -> {
+			BulkExchange<T> bulk = new BulkExchange<>(sink, bucketOf, exchange, concurrency, bucketConcurrency,
+					ordered);
+			sink.onRequest(bulk::onRequest);
+			sink.onDispose(bulk::cancelAll);
+			requests.subscribe(bulk);
+		});
+	}
+
+	@Override
+	protected void hookOnSubscribe(Subscription subscription) {
+		synchronized (this) {
+			subscribed = true;
+		}
+		drain();
+	}
+
+	@Override
+	protected void hookOnNext(TwitchRequest<T> request) {
+		synchronized (this) {
+			pulling = false;
+			waiting.add(new Pending(nextSequence++, request, bucketOf.apply(request)));
+			unfinished++;
+		}
+		drain();
+	}
+
+	@Override
+	protected void hookOnComplete() {
+		synchronized (this) {
+			pulling = false;
+			done = true;
+		}
+		drain();
+	}
+
+	@Override
+	protected void hookOnError(Throwable throwable) {
+		exchanges.dispose();
+		sink.error(throwable);
+	}
+
+	private void onRequest(long n) {
+		synchronized (this) {
+			credit = Operators.addCap(credit, n);
+		}
+		drain();
+	}
+
+	private void onResult(Pending pending, ExchangeResult<T> result) {
+		synchronized (this) {
+			pending.finished = true;
+			if (pending.subscription != null) {
+				exchanges.remove(pending.subscription);
+			}
+			inFlight--;
+			inFlightByBucket.merge(pending.bucket, -1, (count, delta) -> count == 1 ? null : count + delta);
+			if (ordered) {
+				completed.put(pending.sequence, result);
+				while ((result = completed.remove(nextToEmit)) != null) {
+					outbox.add(result);
+					nextToEmit++;
+					unfinished--;
+				}
+			} else {
+				outbox.add(result);
+				unfinished--;
+			}
+		}
+		drain();
+	}
+
+	private void cancelAll() {
+		cancel();
+		exchanges.dispose();
+	}
+
+	/**
+	 * Send every request set aside whose bucket now has room, pull the next request if there is room for it, and emit
+	 * the results.
+	 */
+	private void drain() {
+		List<Pending> ready = new ArrayList<>(0);
+		boolean pull;
+		synchronized (this) {
+			for (Iterator<Pending> it = waiting.iterator(); it.hasNext() && inFlight < concurrency; ) {
+				Pending pending = it.next();
+				if (inFlightByBucket.getOrDefault(pending.bucket, 0) < bucketConcurrency) {
+					it.remove();
+					inFlight++;
+					inFlightByBucket.merge(pending.bucket, 1, Integer::sum);
+					ready.add(pending);
+				}
+			}
+			// in order, results held back behind a slower request count too, which bounds the reordering buffer
+			pull = subscribed && !pulling && !done && credit > 0 && inFlight < concurrency
+					&& waiting.size() < concurrency && (!ordered || unfinished < concurrency);
+			if (pull) {
+				pulling = true;
+				credit--;
+			}
+		}
+		for (Pending pending : ready) {
+			Disposable subscription = exchange.apply(pending.request)
+					.subscribe(result -> onResult(pending, result));
+			synchronized (this) {
+				if (!pending.finished) {
+					pending.subscription = subscription;
+					exchanges.add(subscription);
+				}
+			}
+		}
+		if (pull) {
+			request(1);
+		}
+		emit();
+	}
+
+	/**
+	 * Emit the results of the outbox, in the order they were added, from a single thread at a time, and complete once
+	 * every request has a result.
+	 */
+	private void emit() {
+		if (emitting.getAndIncrement() != 0) {
+			return;
+		}
+		int missed = 1;
+		do {
+			ExchangeResult<T> result;
+			while ((result = outbox.poll()) != null) {
+				sink.next(result);
+			}
+			if (isFinished()) {
+				// results added since the outbox was last drained
+				while ((result = outbox.poll()) != null) {
+					sink.next(result);
+				}
+				sink.complete();
+				return;
+			}
+			missed = emitting.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	private synchronized boolean isFinished() {
+		return done && unfinished == 0;
+	}
+
+	private class Pending {
+
+		private final long sequence;
+		private final TwitchRequest<T> request;
+		private final BucketKey bucket;
+		@Nullable
+		private Disposable subscription;
+		private boolean finished;
+
+		private Pending(long sequence, TwitchRequest<T> request, BucketKey bucket) {
+			this.sequence = sequence;
+			this.request = request;
+			this.bucket = bucket;
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package twitch4j.stream.rest.request;
+
+import java.time.Duration;
+
+/**
+ * Stops sending requests to a bucket or a host that keeps failing, so callers fail immediately instead of queueing
+ * behind calls that will fail too.
+ * <ul>
+ * <li>While {@link State#CLOSED closed}, every call goes through and its outcome is recorded in a sliding window of
+ * the latest calls. The circuit opens when the failure rate or the slow call rate of the window reaches its
+ * threshold.</li>
+ * <li>While {@link State#OPEN open}, every call is rejected with a {@link CircuitOpenException}.</li>
+ * <li>Once the open duration has elapsed, the circuit is {@link State#HALF_OPEN half-open} and lets a limited number
+ * of trial calls through. It closes again if they all succeed, and opens again on the first failure.</li>
+ * <li>A circuit closed after trial calls ramps up: it lets through one call out of
+ * {@link CircuitBreakerOptions#getRampUpSteps() steps} at first, one more at each step, each step lasting as many
+ * successful calls as there are trial calls. Any failed or slow call during the ramp-up opens the circuit again, so a
+ * server that recovered only partially is not flooded at once.</li>
+ * </ul>
+ *
+ * @see CircuitBreakerOptions
+ * @since 1.0
+ */
+public class CircuitBreaker {
+
+	private static final byte FAILURE = 1;
+	private static final byte SLOW = 2;
+
+	private final String name;
+	private final CircuitBreakerOptions options;
+	private final long slowCallNanos;
+	private final byte[] window;
+
+	private State state = State.CLOSED;
+	private int index;
+	private int calls;
+	private int failures;
+	private int slowCalls;
+	private long openUntil;
+	private int trialPermits;
+	private int trialSuccesses;
+	private int rampStep;
+	private int rampOffered;
+	private int rampSuccesses;
+
+	CircuitBreaker(String name, CircuitBreakerOptions options) {
+		this.name = name;
+		this.options = options;
+		this.slowCallNanos = options.getSlowCallThreshold().toNanos();
+		this.window = new byte[options.getWindowSize()];
+	}
+
+	/**
+	 * Return the name of the bucket or host guarded by this circuit breaker.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Return the current state of this circuit breaker.
+	 *
+	 * @return the state
+	 */
+	public synchronized State getState() {
+		return state == State.OPEN && System.nanoTime() >= openUntil ? State.HALF_OPEN : state;
+	}
+
+	/**
+	 * Check, without taking a trial permit, whether a call would currently be rejected.
+	 *
+	 * @return {@code true} if the circuit is open and not yet ready for trial calls
+	 */
+	synchronized boolean isOpen() {
+		return state == State.OPEN && System.nanoTime() < openUntil;
+	}
+
+	/**
+	 * Return how long the circuit stays open.
+	 *
+	 * @return the time left before trial calls are let through, zero if the circuit is not open
+	 */
+	synchronized Duration getRemainingOpenDuration() {
+		return state == State.OPEN ? Duration.ofNanos(Math.max(0, openUntil - System.nanoTime())) : Duration.ZERO;
+	}
+
+	/**
+	 * Ask for permission to send a call. A permitted call must be followed by {@link #onResult(long, boolean)} or
+	 * {@link #onIgnored()}.
+	 *
+	 * @return {@code true} if the call may be sent
+	 */
+	synchronized boolean tryAcquire() {
+		if (state == State.OPEN && System.nanoTime() >= openUntil) {
+			state = State.HALF_OPEN;
+			trialPermits = options.getHalfOpenCalls();
+			trialSuccesses = 0;
+		}
+		switch (state) {
+			case CLOSED:
+				if (rampStep == 0) {
+					return true;
+				}
+				rampOffered = (rampOffered + 1) % options.getRampUpSteps();
+				return rampOffered < rampStep;
+			case OPEN:
+				return false;
+			case HALF_OPEN:
+				if (trialPermits > 0) {
+					trialPermits--;
+					return true;
+				}
+				return false;
+			default:
+				throw new IllegalStateException("Unknown state: " + state);
+		}
+	}
+
+	/**
+	 * Record the outcome of a permitted call.
+	 *
+	 * @param durationNanos how long the call took
+	 * @param failure       whether the call failed in a way that indicates an unhealthy server
+	 */
+	synchronized void onResult(long durationNanos, boolean failure) {
+		boolean slow = durationNanos > slowCallNanos;
+		if (state == State.HALF_OPEN) {
+			if (failure || slow) {
+				open();
+			} else if (++trialSuccesses >= options.getHalfOpenCalls()) {
+				close();
+			}
+		} else if (state == State.CLOSED) {
+			record((byte) ((failure ? FAILURE : 0) | (slow ? SLOW : 0)));
+			if (rampStep > 0) {
+				rampUp(failure || slow);
+			} else if (calls >= options.getMinimumCalls() &&
+					(failures * 100 >= options.getFailureRateThreshold() * calls ||
+							slowCalls * 100 >= options.getSlowCallRateThreshold() * calls)) {
+				open();
+			}
+		}
+	}
+
+	/**
+	 * Give back the permit of a call that completed without an outcome, like a cancelled call.
+	 */
+	synchronized void onIgnored() {
+		if (state == State.HALF_OPEN) {
+			trialPermits++;
+		}
+	}
+
+	private void record(byte outcome) {
+		if (calls == window.length) {
+			byte evicted = window[index];
+			failures -= evicted & FAILURE;
+			slowCalls -= (evicted & SLOW) >> 1;
+		} else {
+			calls++;
+		}
+		window[index] = outcome;
+		failures += outcome & FAILURE;
+		slowCalls += (outcome & SLOW) >> 1;
+		index = (index + 1) % window.length;
+	}
+
+	private void rampUp(boolean failed) {
+		if (failed) {
+			open();
+		} else if (++rampSuccesses >= options.getHalfOpenCalls()) {
+			rampSuccesses = 0;
+			rampStep = (rampStep + 1) % options.getRampUpSteps();
+		}
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openUntil = System.nanoTime() + options.getOpenDuration().toNanos();
+		rampStep = 0;
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		index = calls = failures = slowCalls = 0;
+		rampStep = options.getRampUpSteps() > 1 ? 1 : 0;
+		rampOffered = rampSuccesses = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "CircuitBreaker{name='" + name + "', state=" + getState() + '}';
+	}
+
+	/**
+	 * The states of a circuit breaker.
+	 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+}
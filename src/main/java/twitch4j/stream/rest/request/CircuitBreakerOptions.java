@@ -0,0 +1,190 @@
+package twitch4j.stream.rest.request;
+
+import java.time.Duration;
+
+/**
+ * Thresholds of the {@link CircuitBreaker circuit breakers} a {@link Router} keeps for its host and for each bucket.
+ *
+ * @see RouterOptions.Builder#circuitBreaker(CircuitBreakerOptions)
+ * @since 1.0
+ */
+public class CircuitBreakerOptions {
+
+	private final int windowSize;
+	private final int minimumCalls;
+	private final int failureRateThreshold;
+	private final Duration slowCallThreshold;
+	private final int slowCallRateThreshold;
+	private final Duration openDuration;
+	private final int halfOpenCalls;
+	private final int rampUpSteps;
+
+	private CircuitBreakerOptions(Builder builder) {
+		this.windowSize = builder.windowSize;
+		this.minimumCalls = Math.min(builder.minimumCalls, builder.windowSize);
+		this.failureRateThreshold = builder.failureRateThreshold;
+		this.slowCallThreshold = builder.slowCallThreshold;
+		this.slowCallRateThreshold = builder.slowCallRateThreshold;
+		this.openDuration = builder.openDuration;
+		this.halfOpenCalls = builder.halfOpenCalls;
+		this.rampUpSteps = builder.rampUpSteps;
+	}
+
+	/**
+	 * A {@link CircuitBreakerOptions} builder.
+	 *
+	 * @return a builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * The default thresholds: the circuit opens for 30 seconds when half of the last 100 calls, and at least 20 of
+	 * them, failed or took longer than 10 seconds, then lets 5 trial calls through and ramps back up in 4 steps.
+	 *
+	 * @return the default options
+	 */
+	public static CircuitBreakerOptions defaults() {
+		return builder().build();
+	}
+
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	public int getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public Duration getSlowCallThreshold() {
+		return slowCallThreshold;
+	}
+
+	public int getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	public Duration getOpenDuration() {
+		return openDuration;
+	}
+
+	public int getHalfOpenCalls() {
+		return halfOpenCalls;
+	}
+
+	public int getRampUpSteps() {
+		return rampUpSteps;
+	}
+
+	/**
+	 * A mutable builder for a {@link CircuitBreakerOptions}.
+	 */
+	public static class Builder {
+
+		private int windowSize = 100;
+		private int minimumCalls = 20;
+		private int failureRateThreshold = 50;
+		private Duration slowCallThreshold = Duration.ofSeconds(10);
+		private int slowCallRateThreshold = 50;
+		private Duration openDuration = Duration.ofSeconds(30);
+		private int halfOpenCalls = 5;
+		private int rampUpSteps = 4;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set how many of the latest calls the failure and slow call rates are computed over.
+		 *
+		 * @param windowSize the number of calls in the sliding window
+		 * @param minimumCalls the number of calls needed before the circuit may open
+		 * @return this builder
+		 */
+		public Builder window(int windowSize, int minimumCalls) {
+			if (windowSize <= 0 || minimumCalls <= 0) {
+				throw new IllegalArgumentException("Window size and minimum calls must be positive");
+			}
+			this.windowSize = windowSize;
+			this.minimumCalls = minimumCalls;
+			return this;
+		}
+
+		/**
+		 * Set the percentage of failed calls in the window at which the circuit opens. Server errors, timeouts and
+		 * connection errors are failures; client errors, including 429, are not.
+		 *
+		 * @param failureRateThreshold a percentage between 1 and 100
+		 * @return this builder
+		 */
+		public Builder failureRateThreshold(int failureRateThreshold) {
+			this.failureRateThreshold = checkPercentage(failureRateThreshold);
+			return this;
+		}
+
+		/**
+		 * Set when calls are considered slow, and the percentage of slow calls in the window at which the circuit
+		 * opens.
+		 *
+		 * @param slowCallThreshold     the duration above which a call is slow
+		 * @param slowCallRateThreshold a percentage between 1 and 100
+		 * @return this builder
+		 */
+		public Builder slowCalls(Duration slowCallThreshold, int slowCallRateThreshold) {
+			this.slowCallThreshold = slowCallThreshold;
+			this.slowCallRateThreshold = checkPercentage(slowCallRateThreshold);
+			return this;
+		}
+
+		/**
+		 * Set how long an open circuit rejects calls before letting trial calls through.
+		 *
+		 * @param openDuration  the time calls are rejected for
+		 * @param halfOpenCalls the number of successful trial calls needed to close the circuit again
+		 * @return this builder
+		 */
+		public Builder open(Duration openDuration, int halfOpenCalls) {
+			if (halfOpenCalls <= 0) {
+				throw new IllegalArgumentException("Half-open calls must be positive: " + halfOpenCalls);
+			}
+			this.openDuration = openDuration;
+			this.halfOpenCalls = halfOpenCalls;
+			return this;
+		}
+
+		/**
+		 * Set how gradually a circuit closed after successful trial calls lets calls through again: one call out of
+		 * {@code steps} at first, then one more at each step.
+		 *
+		 * @param steps the number of steps to let every call through, {@code 1} to let them all through at once
+		 * @return this builder
+		 */
+		public Builder rampUp(int steps) {
+			if (steps <= 0) {
+				throw new IllegalArgumentException("Ramp-up steps must be positive: " + steps);
+			}
+			this.rampUpSteps = steps;
+			return this;
+		}
+
+		private static int checkPercentage(int percentage) {
+			if (percentage <= 0 || percentage > 100) {
+				throw new IllegalArgumentException("Percentage must be between 1 and 100: " + percentage);
+			}
+			return percentage;
+		}
+
+		/**
+		 * Build the {@link CircuitBreakerOptions} instance.
+		 *
+		 * @return circuit breaker options
+		 */
+		public CircuitBreakerOptions build() {
+			return new CircuitBreakerOptions(this);
+		}
+	}
+}
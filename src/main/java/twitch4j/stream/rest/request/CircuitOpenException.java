@@ -0,0 +1,42 @@
+package twitch4j.stream.rest.request;
+
+import java.time.Duration;
+
+/**
+ * Signals that a request was rejected without being sent because the {@link CircuitBreaker} of its bucket or host is
+ * open.
+ *
+ * @since 1.0
+ */
+public class CircuitOpenException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String circuit;
+	private final Duration retryAfter;
+
+	CircuitOpenException(CircuitBreaker breaker) {
+		// rejections are expected to be frequent while the circuit is open, and the stack trace would not be useful
+		super("Circuit breaker " + breaker.getName() + " is open", null, false, false);
+		this.circuit = breaker.getName();
+		this.retryAfter = breaker.getRemainingOpenDuration();
+	}
+
+	/**
+	 * Return the name of the open circuit, either a host or a bucket.
+	 *
+	 * @return the circuit name
+	 */
+	public String getCircuit() {
+		return circuit;
+	}
+
+	/**
+	 * Return how long the circuit was going to stay open when the request was rejected.
+	 *
+	 * @return the time before trial calls are let through
+	 */
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+}
@@ -0,0 +1,46 @@
+package twitch4j.stream.rest.request;
+
+import java.time.Instant;
+import javax.annotation.Nullable;
+
+/**
+ * Signals that a {@link TwitchRequest} reached its {@link TwitchRequest#deadline() deadline} before completing.
+ * <p>
+ * When {@link #isDispatched()} is {@code false}, the request expired while queued and was never sent, so it did not
+ * spend any rate limit point.
+ *
+ * @since 1.0
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Instant deadline;
+	private final boolean dispatched;
+
+	DeadlineExceededException(TwitchRequest<?> request, Instant deadline, boolean dispatched,
+							  @Nullable Throwable cause) {
+		super((dispatched ? "Request timed out: " : "Request expired before being sent: ") +
+				request.getRoute().getMethod() + " " + request.getCompleteUri() + ", deadline " + deadline, cause);
+		this.deadline = deadline;
+		this.dispatched = dispatched;
+	}
+
+	/**
+	 * Return the deadline the request missed.
+	 *
+	 * @return the deadline
+	 */
+	public Instant getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Return whether the request was sent before its deadline passed.
+	 *
+	 * @return {@code false} if the request was shed from its queue without being sent
+	 */
+	public boolean isDispatched() {
+		return dispatched;
+	}
+}
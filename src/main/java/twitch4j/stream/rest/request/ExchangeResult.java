@@ -0,0 +1,51 @@
+package twitch4j.stream.rest.request;
+
+import java.util.Optional;
+import javax.annotation.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The outcome of a single request of a {@link Router#exchangeAll(org.reactivestreams.Publisher, int, int, boolean)
+ * bulk exchange}: either its response, possibly empty, or the error it failed with.
+ *
+ * @param <T> the response type
+ * @since 1.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class ExchangeResult<T> {
+
+	private final TwitchRequest<T> request;
+	@Nullable
+	@Getter(AccessLevel.NONE)
+	private final T response;
+	/**
+	 * Return the error the request failed with.
+	 *
+	 * @return the error, or {@code null} if the request succeeded
+	 */
+	@Nullable
+	private final Throwable error;
+
+	/**
+	 * Return whether the request succeeded.
+	 *
+	 * @return {@code true} if the request completed without error
+	 */
+	public boolean isSuccess() {
+		return error == null;
+	}
+
+	/**
+	 * Return the response of a successful request.
+	 *
+	 * @return the response, empty if the request failed or completed without a body
+	 */
+	public Optional<T> getResponse() {
+		return Optional.ofNullable(response);
+	}
+}
@@ -0,0 +1,39 @@
+package twitch4j.stream.rest.request;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import java.time.Duration;
+import javax.annotation.Nullable;
+
+/**
+ * Sends the requests of a bucket one at a time, a fixed interval apart, ignoring the response headers.
+ *
+ * @see RateLimitPolicy#fixedRate(Duration)
+ */
+class FixedRateLimitPolicy implements RateLimitPolicy {
+
+	private final Pacing pacing;
+	private final Duration interval;
+
+	FixedRateLimitPolicy(Duration interval) {
+		if (interval.isNegative()) {
+			throw new IllegalArgumentException("Interval must not be negative: " + interval);
+		}
+		this.pacing = Pacing.bucket(interval);
+		this.interval = interval;
+	}
+
+	@Override
+	public Pacing pace(@Nullable HttpHeaders response, boolean authorized) {
+		return pacing;
+	}
+
+	@Override
+	public Duration retryAfter(HttpHeaders response) {
+		return interval.compareTo(Duration.ofSeconds(1)) > 0 ? interval : Duration.ofSeconds(1);
+	}
+
+	@Override
+	public boolean isPerToken() {
+		return false;
+	}
+}
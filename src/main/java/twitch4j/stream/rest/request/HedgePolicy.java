@@ -0,0 +1,85 @@
+package twitch4j.stream.rest.request;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The hedging state of a single bucket: a window of its latest successful latencies, from which the hedging delay is
+ * derived, and the budget of hedges left.
+ */
+class HedgePolicy {
+
+	private static final int WINDOW = 256;
+	private static final int RECOMPUTE_EVERY = 32;
+
+	private final HedgingOptions options;
+	private final long minimumDelay;
+	private final long[] latencies = new long[WINDOW];
+	private int index;
+	private int count;
+	private volatile long delay;
+	/**
+	 * Hedges that may be sent, in thousandths: each request adds its share of the ratio and each hedge takes a whole
+	 * one, capped so bursts of hedges stay short.
+	 */
+	private long budget;
+
+	/**
+	 * Create the hedging state of a bucket.
+	 *
+	 * @param options the hedging settings
+	 */
+	HedgePolicy(HedgingOptions options) {
+		this.options = options;
+		this.minimumDelay = options.getMinimumDelay().toNanos();
+		this.delay = minimumDelay;
+	}
+
+	/**
+	 * Return how long to wait for a response before hedging.
+	 *
+	 * @return the hedging delay in nanoseconds
+	 */
+	long getDelay() {
+		return delay;
+	}
+
+	/**
+	 * Add the share of a new request to the budget.
+	 */
+	synchronized void onRequest() {
+		budget = Math.min(budget + (long) (options.getBudgetRatio() * 1000), 10_000);
+	}
+
+	/**
+	 * Take a hedge from the budget and a point from the rate limit the hedge is sent under, if both allow it.
+	 *
+	 * @param remaining the rate limit points remaining for the token of the request, -1 if unknown
+	 * @return {@code true} if a hedge may be sent
+	 */
+	synchronized boolean tryHedge(AtomicLong remaining) {
+		long points = remaining.get();
+		if (budget < 1000 || (points >= 0 && points <= options.getMinimumRemaining())) {
+			return false;
+		}
+		budget -= 1000;
+		if (points > 0) {
+			remaining.decrementAndGet();
+		}
+		return true;
+	}
+
+	synchronized void onLatency(long nanos) {
+		latencies[index] = nanos;
+		index = (index + 1) % WINDOW;
+		if (count < WINDOW) {
+			count++;
+		}
+		if (index % RECOMPUTE_EVERY == 0) {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			int rank = (int) Math.ceil(options.getPercentile() / 100 * count) - 1;
+			delay = Math.max(minimumDelay, sorted[Math.max(0, rank)]);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package twitch4j.stream.rest.request;
+
+import java.time.Duration;
+
+/**
+ * Settings of request hedging: when a GET request has not been answered after a high percentile of the recent
+ * latency of its bucket, a second identical request is sent and whichever answers last is cancelled.
+ * <p>
+ * Hedges are limited by a budget relative to the number of requests, and are only sent while the bucket reports enough
+ * remaining rate limit points, since each one spends a point.
+ *
+ * @see RouterOptions.Builder#hedging(HedgingOptions)
+ * @since 1.0
+ */
+public class HedgingOptions {
+
+	private final double percentile;
+	private final Duration minimumDelay;
+	private final double budgetRatio;
+	private final int minimumRemaining;
+
+	private HedgingOptions(Builder builder) {
+		this.percentile = builder.percentile;
+		this.minimumDelay = builder.minimumDelay;
+		this.budgetRatio = builder.budgetRatio;
+		this.minimumRemaining = builder.minimumRemaining;
+	}
+
+	/**
+	 * A {@link HedgingOptions} builder.
+	 *
+	 * @return a builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * The default settings: hedge after the 95th percentile of the recent latency, at least 50 milliseconds, for at
+	 * most 5% of the requests, while at least 10 rate limit points remain.
+	 *
+	 * @return the default hedging settings
+	 */
+	public static HedgingOptions defaults() {
+		return builder().build();
+	}
+
+	public double getPercentile() {
+		return percentile;
+	}
+
+	public Duration getMinimumDelay() {
+		return minimumDelay;
+	}
+
+	public double getBudgetRatio() {
+		return budgetRatio;
+	}
+
+	public int getMinimumRemaining() {
+		return minimumRemaining;
+	}
+
+	/**
+	 * A mutable builder for a {@link HedgingOptions}.
+	 */
+	public static class Builder {
+
+		private double percentile = 95;
+		private Duration minimumDelay = Duration.ofMillis(50);
+		private double budgetRatio = 0.05;
+		private int minimumRemaining = 10;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the percentile of the recent latency of the bucket after which a hedge is sent.
+		 *
+		 * @param percentile a percentile between 0 and 100, like {@code 95}
+		 * @return this builder
+		 */
+		public Builder percentile(double percentile) {
+			if (percentile <= 0 || percentile >= 100) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+			}
+			this.percentile = percentile;
+			return this;
+		}
+
+		/**
+		 * Set the shortest delay before a hedge is sent, which also applies until enough latencies are known.
+		 *
+		 * @param minimumDelay the minimum hedging delay
+		 * @return this builder
+		 */
+		public Builder minimumDelay(Duration minimumDelay) {
+			this.minimumDelay = minimumDelay;
+			return this;
+		}
+
+		/**
+		 * Set the maximum number of hedges relative to the number of requests of a bucket.
+		 *
+		 * @param budgetRatio a ratio between 0 and 1, like {@code 0.05} for one hedge every 20 requests
+		 * @return this builder
+		 */
+		public Builder budgetRatio(double budgetRatio) {
+			if (budgetRatio < 0 || budgetRatio > 1) {
+				throw new IllegalArgumentException("Budget ratio must be between 0 and 1: " + budgetRatio);
+			}
+			this.budgetRatio = budgetRatio;
+			return this;
+		}
+
+		/**
+		 * Set how many rate limit points must remain in the bucket, according to the latest response, for a hedge to
+		 * be sent.
+		 *
+		 * @param minimumRemaining the number of points to keep for regular requests
+		 * @return this builder
+		 */
+		public Builder minimumRemaining(int minimumRemaining) {
+			this.minimumRemaining = minimumRemaining;
+			return this;
+		}
+
+		/**
+		 * Build the {@link HedgingOptions} instance.
+		 *
+		 * @return hedging settings
+		 */
+		public HedgingOptions build() {
+			return new HedgingOptions(this);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package twitch4j.stream.rest.request;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import javax.annotation.Nullable;
+
+/**
+ * The <a href="https://dev.twitch.tv/docs/api/guide/#rate-limits">Helix</a> points policy, driven by the
+ * {@code Ratelimit-Limit}, {@code Ratelimit-Remaining} and {@code Ratelimit-Reset} headers. Points are counted per
+ * bearer token, or per client without a token, so a request with a token only holds back its own token.
+ *
+ * @see RateLimitPolicy#helix()
+ */
+class HelixRateLimitPolicy implements RateLimitPolicy {
+
+	static final HelixRateLimitPolicy INSTANCE = new HelixRateLimitPolicy();
+
+	private static final String LIMIT = "Ratelimit-Limit";
+	private static final String REMAINING = "Ratelimit-Remaining";
+	private static final String RESET = "Ratelimit-Reset";
+
+	private HelixRateLimitPolicy() {
+	}
+
+	@Override
+	public Pacing pace(@Nullable HttpHeaders response, boolean authorized) {
+		if (response == null || response.getInt(REMAINING, -1) != 0 || resetAt(response) < 0) {
+			return Pacing.NONE;
+		}
+		Duration delay = untilReset(response);
+		return authorized ? Pacing.token(delay) : Pacing.bucket(delay);
+	}
+
+	@Override
+	public Duration retryAfter(HttpHeaders response) {
+		return resetAt(response) >= 0 ? untilReset(response) : Duration.ofSeconds(1);
+	}
+
+	@Nullable
+	@Override
+	public Points points(HttpHeaders response) {
+		int remaining = response.getInt(REMAINING, -1);
+		long resetAt = resetAt(response);
+		if (remaining < 0 || resetAt < 0) {
+			return null;
+		}
+		return new Points(response.getInt(LIMIT, -1), remaining, Instant.ofEpochSecond(resetAt));
+	}
+
+	/**
+	 * Compute the time left until the points reset, using the {@code Date} of the response so clock skew does not
+	 * matter.
+	 */
+	private static Duration untilReset(HttpHeaders response) {
+		long unixTime = response.getTimeMillis("Date", System.currentTimeMillis()) / 1000;
+		return Duration.ofSeconds(Math.max(0, resetAt(response) - unixTime));
+	}
+
+	/**
+	 * Read the reset time in epoch seconds, a missing or malformed header being ignored rather than failing the
+	 * response.
+	 *
+	 * @return the reset time, or {@code -1} if the response has none
+	 */
+	private static long resetAt(HttpHeaders response) {
+		String resetAt = response.get(RESET);
+		if (resetAt == null) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(resetAt);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package twitch4j.stream.rest.request;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import javax.annotation.Nullable;
+
+/**
+ * Decides how a {@link RequestStream} paces its requests from the responses of an API family. A {@link Router}
+ * resolves its policy once and hands it to every bucket, so nothing is decided per request from the base URL.
+ * <p>
+ * Implementations must be thread-safe, and are called on the event loops with the headers of every response.
+ *
+ * @see RouterOptions.Builder#rateLimitPolicy(RateLimitPolicy)
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface RateLimitPolicy {
+
+	/**
+	 * The Helix points policy: a token, or the client without a token, waits for its points to reset once a response
+	 * reports none remaining, and a rate limited request is retried once they reset.
+	 *
+	 * @return the Helix policy
+	 */
+	static RateLimitPolicy helix() {
+		return HelixRateLimitPolicy.INSTANCE;
+	}
+
+	/**
+	 * The Kraken policy: one request per second and per bucket, whatever the token.
+	 *
+	 * @return the Kraken policy
+	 */
+	static RateLimitPolicy kraken() {
+		return fixedRate(Duration.ofSeconds(1));
+	}
+
+	/**
+	 * A policy sending the requests of each bucket one at a time, with a fixed interval between the end of a request
+	 * and the start of the next one, whatever the token.
+	 *
+	 * @param interval the interval between two requests of a bucket
+	 * @return a fixed rate policy
+	 */
+	static RateLimitPolicy fixedRate(Duration interval) {
+		return new FixedRateLimitPolicy(interval);
+	}
+
+	/**
+	 * A policy never waiting between requests, for APIs without rate limits. Each token still sends one request of a
+	 * bucket at a time.
+	 *
+	 * @return the unlimited policy
+	 */
+	static RateLimitPolicy unlimited() {
+		return (response, authorized) -> Pacing.NONE;
+	}
+
+	/**
+	 * The default policy of a client: {@link #helix()} or {@link #kraken()} if its base URL is one of these APIs, and
+	 * {@link #unlimited()} otherwise.
+	 *
+	 * @param baseUrl the base URL of the client
+	 * @return the policy matching the API
+	 */
+	static RateLimitPolicy forBaseUrl(String baseUrl) {
+		if (baseUrl.contains("helix")) {
+			return helix();
+		} else if (baseUrl.contains("kraken")) {
+			return kraken();
+		}
+		return unlimited();
+	}
+
+	/**
+	 * Decide how long to wait before the next request, once a request is complete.
+	 *
+	 * @param response   the headers of the last response of the request, or {@code null} if it received none
+	 * @param authorized whether the request carried an {@code Authorization} header
+	 * @return the pacing of the next request
+	 */
+	Pacing pace(@Nullable HttpHeaders response, boolean authorized);
+
+	/**
+	 * Decide how long to wait before retrying a rate limited request.
+	 *
+	 * @param response the headers of the {@code 429 Too Many Requests} response
+	 * @return the delay before the retry, one second by default
+	 */
+	default Duration retryAfter(HttpHeaders response) {
+		return Duration.ofSeconds(1);
+	}
+
+	/**
+	 * Read the rate limit state reported by a response, which feeds the metrics and {@link Router#rateLimits()}.
+	 *
+	 * @param response the headers of a response
+	 * @return the points of the bucket, or {@code null} if the response reports none, the default
+	 */
+	@Nullable
+	default Points points(HttpHeaders response) {
+		return null;
+	}
+
+	/**
+	 * Whether each token has its own rate limit within a bucket. If so, the requests of different tokens are sent
+	 * concurrently, otherwise all the requests of a bucket are sent one at a time.
+	 *
+	 * @return {@code true} by default
+	 */
+	default boolean isPerToken() {
+		return true;
+	}
+
+	/**
+	 * How long a token, or a whole bucket, waits before its next request.
+	 */
+	final class Pacing {
+
+		/**
+		 * No wait at all.
+		 */
+		public static final Pacing NONE = new Pacing(Duration.ZERO, false);
+
+		private final Duration delay;
+		private final boolean wholeBucket;
+
+		private Pacing(Duration delay, boolean wholeBucket) {
+			this.delay = delay;
+			this.wholeBucket = wholeBucket;
+		}
+
+		/**
+		 * Hold back the next request of the same token.
+		 *
+		 * @param delay the wait
+		 * @return the pacing
+		 */
+		public static Pacing token(Duration delay) {
+			return delay.isZero() ? NONE : new Pacing(delay, false);
+		}
+
+		/**
+		 * Hold back the next request of every token of the bucket.
+		 *
+		 * @param delay the wait
+		 * @return the pacing
+		 */
+		public static Pacing bucket(Duration delay) {
+			return new Pacing(delay, true);
+		}
+
+		public Duration getDelay() {
+			return delay;
+		}
+
+		public boolean isWholeBucket() {
+			return wholeBucket;
+		}
+	}
+
+	/**
+	 * The points of a bucket reported by a response.
+	 */
+	final class Points {
+
+		private final int limit;
+		private final int remaining;
+		private final Instant resetAt;
+
+		/**
+		 * Create the points reported by a response.
+		 *
+		 * @param limit     the points of a full bucket
+		 * @param remaining the points left
+		 * @param resetAt   when the bucket is full again, according to the server clock
+		 */
+		public Points(int limit, int remaining, Instant resetAt) {
+			this.limit = limit;
+			this.remaining = remaining;
+			this.resetAt = resetAt;
+		}
+
+		public int getLimit() {
+			return limit;
+		}
+
+		public int getRemaining() {
+			return remaining;
+		}
+
+		public Instant getResetAt() {
+			return resetAt;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package twitch4j.stream.rest.request;
+
+import java.time.Instant;
+import javax.annotation.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The rate limit state of a bucket, or of a single token within a bucket, as reported by the {@code Ratelimit-*}
+ * headers of the latest response.
+ *
+ * @see Router#rateLimits()
+ * @since 1.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class RateLimitSnapshot {
+
+	/**
+	 * The bucket the response belongs to, formatted as its uri template followed by its major parameter, if any.
+	 */
+	private final String bucket;
+	/**
+	 * The redacted {@code Authorization} header of the request, or {@code null} if the request used none.
+	 */
+	@Nullable
+	private final String token;
+	private final int limit;
+	private final int remaining;
+	/**
+	 * When the bucket is full again, according to the server clock.
+	 */
+	private final Instant resetAt;
+	/**
+	 * The number of requests waiting in the bucket when the response was received.
+	 */
+	private final int queueDepth;
+
+	/**
+	 * Redact an {@code Authorization} header value, keeping its scheme and last four characters to tell tokens apart.
+	 *
+	 * @param authorization the header value
+	 * @return the redacted value, like {@code Bearer ****wxyz}
+	 */
+	static String redact(String authorization) {
+		int space = authorization.indexOf(' ');
+		String scheme = space < 0 ? "" : authorization.substring(0, space + 1);
+		String token = authorization.substring(space + 1);
+		return token.length() <= 8 ? scheme + "****" : scheme + "****" + token.substring(token.length() - 4);
+	}
+}
@@ -0,0 +1,560 @@
+package twitch4j.stream.rest.request;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import io.netty.handler.codec.http.HttpMethod;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import twitch4j.stream.rest.route.Route;
+
+/**
+ * An append-only log of the non-idempotent requests a {@link Router} has accepted but not yet completed, so they are
+ * sent again after a restart instead of being lost with the in-memory queues.
+ * <p>
+ * The log is a memory-mapped file of records, each one checked by a CRC so a record torn by a crash is ignored. A
+ * request is only queued once its record is on disk. Records appended within one {@link Builder#commitInterval commit
+ * interval} share a single {@code fsync}, trading a few milliseconds of latency for far fewer disk flushes. A request
+ * is acknowledged once it succeeds, or fails in a way that sending it again would not change, like a client error
+ * other than 429. Acknowledged records are dropped when the file is compacted, which happens when it is opened and
+ * whenever it is full, growing it if the pending records alone do not fit.
+ * <p>
+ * Delivery is at-least-once: a request sent just before a crash, but not yet acknowledged, is sent again. So is a
+ * request that was cancelled by its caller or failed with a server error, a 429 or an I/O error, as it may not have
+ * taken effect. A request whose record could not be flushed fails without being sent, and is acknowledged so it is not
+ * sent after a restart either. Bodies are stored as JSON, and replayed as a
+ * {@link com.fasterxml.jackson.databind.JsonNode} tree.
+ * <p>
+ * Requests are stored with their headers, including their {@code Authorization} token unless a
+ * {@link Builder#tokenStore(TokenStore) token store} keeps it out of the file. On file systems supporting POSIX
+ * permissions, the file is only readable and writable by its owner.
+ *
+ * @see RouterOptions.Builder#journal(RequestJournal)
+ * @since 1.0
+ */
+public class RequestJournal implements Closeable {
+
+	private static final int MAGIC = 0x53344A31;
+	private static final int VERSION = 2;
+	private static final int FILE_HEADER = 8;
+	/**
+	 * Length, CRC, type and id of a record.
+	 */
+	private static final int RECORD_HEADER = 17;
+	private static final byte APPEND = 1;
+	private static final byte ACK = 2;
+
+	private static final byte NO_BODY = 0;
+	private static final byte STRING_BODY = 1;
+	private static final byte JSON_BODY = 2;
+
+	private static final byte NO_TOKEN = 0;
+	private static final byte TOKEN = 1;
+	private static final byte TOKEN_REFERENCE = 2;
+	private static final String AUTHORIZATION = "authorization";
+
+	private static final Set<StandardOpenOption> OPEN_OPTIONS = EnumSet.of(StandardOpenOption.CREATE_NEW,
+			StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+	private final Path path;
+	private final ObjectMapper objectMapper;
+	private final Duration commitInterval;
+	@Nullable
+	private final TokenStore tokenStore;
+	private final Scheduler scheduler;
+	/**
+	 * The encoded records of the pending requests by id, guarded by {@code this}.
+	 */
+	private final Map<Long, byte[]> pending = new LinkedHashMap<>();
+	private final Map<Long, TwitchRequest<?>> recovered;
+
+	private int capacity;
+	private MappedByteBuffer buffer;
+	private long nextId;
+	private List<MonoProcessor<Void>> uncommitted = new ArrayList<>();
+	private boolean commitScheduled;
+	private boolean closed;
+
+	private RequestJournal(Builder builder) throws IOException {
+		this.path = builder.path;
+		this.objectMapper = builder.objectMapper;
+		this.commitInterval = builder.commitInterval;
+		this.tokenStore = builder.tokenStore;
+		this.capacity = builder.capacity;
+		this.recovered = recover();
+		this.scheduler = Schedulers.newSingle("stream4j-journal", true);
+	}
+
+	/**
+	 * A {@link RequestJournal} builder.
+	 *
+	 * @param path         the journal file, created if it does not exist
+	 * @param objectMapper the mapper serializing request bodies
+	 * @return a builder
+	 */
+	public static Builder builder(Path path, ObjectMapper objectMapper) {
+		return new Builder(path, objectMapper);
+	}
+
+	/**
+	 * Return the number of requests recorded and not yet acknowledged.
+	 *
+	 * @return the number of pending requests
+	 */
+	public synchronized int size() {
+		return pending.size();
+	}
+
+	/**
+	 * Return the requests found pending when the journal was opened, in the order they were first accepted.
+	 *
+	 * @return the requests to send again by id
+	 */
+	Map<Long, TwitchRequest<?>> getRecovered() {
+		return recovered;
+	}
+
+	/**
+	 * Record a request.
+	 *
+	 * @param request the request to record
+	 * @return a Mono emitting the id of the record once it is on disk. A failure to flush the record acknowledges it
+	 */
+	Mono<Long> append(TwitchRequest<?> request) {
+		return Mono.defer(() -> {
+			long id;
+			MonoProcessor<Void> committed = MonoProcessor.create();
+			try {
+				byte[] payload = encode(request);
+				synchronized (this) {
+					if (closed) {
+						return Mono.error(new IllegalStateException("The request journal is closed"));
+					}
+					id = nextId++;
+					byte[] record = record(APPEND, id, payload);
+					if (buffer.remaining() < record.length) {
+						compact(record.length);
+					}
+					write(record);
+					pending.put(id, record);
+					uncommitted.add(committed);
+					scheduleCommit();
+				}
+			} catch (IOException e) {
+				return Mono.error(e);
+			}
+			return committed.doOnError(e -> acknowledge(id)).then(Mono.just(id));
+		});
+	}
+
+	/**
+	 * Mark a request as complete, so it is not sent again.
+	 *
+	 * @param id the id of the record of the request
+	 */
+	synchronized void acknowledge(long id) {
+		if (closed || pending.remove(id) == null) {
+			return;
+		}
+		byte[] record = record(ACK, id, new byte[0]);
+		try {
+			if (buffer.remaining() < record.length) {
+				// the acknowledged record is dropped by the compaction, so there is nothing left to write
+				compact(0);
+			} else {
+				write(record);
+			}
+		} catch (IOException e) {
+			// the request is sent again after a restart, which at-least-once delivery allows
+		}
+	}
+
+	/**
+	 * Flush the pending writes and release the file. Requests still pending are sent again by the next journal opened
+	 * on the same file.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		commit();
+		scheduler.dispose();
+	}
+
+	private void scheduleCommit() {
+		if (!commitScheduled) {
+			commitScheduled = true;
+			scheduler.schedule(this::commit, commitInterval.toNanos(), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Flush every record written since the previous commit with a single {@code fsync}, and complete their appends.
+	 */
+	private void commit() {
+		List<MonoProcessor<Void>> committed;
+		MappedByteBuffer flushed;
+		synchronized (this) {
+			commitScheduled = false;
+			committed = uncommitted;
+			uncommitted = new ArrayList<>();
+			flushed = buffer;
+		}
+		try {
+			flushed.force();
+		} catch (RuntimeException e) {
+			committed.forEach(processor -> processor.onError(e));
+			return;
+		}
+		committed.forEach(MonoProcessor::onComplete);
+	}
+
+	private void write(byte[] record) {
+		int position = buffer.position();
+		buffer.position(position + 4);
+		buffer.put(record, 4, record.length - 4);
+		// the length goes last, so a record is never visible before its content
+		buffer.putInt(position, record.length - 4);
+	}
+
+	/**
+	 * Rewrite the pending records to a new file, large enough to also hold the given number of bytes, and map it in
+	 * place of the current one. Records appended but not committed yet are made durable by the rewrite.
+	 */
+	private void compact(int needed) throws IOException {
+		long live = FILE_HEADER + needed;
+		for (byte[] record : pending.values()) {
+			live += record.length;
+		}
+		long newCapacity = capacity;
+		while (newCapacity < live) {
+			newCapacity *= 2;
+		}
+		if (newCapacity > Integer.MAX_VALUE) {
+			throw new IOException("The request journal cannot grow beyond 2 GB");
+		}
+		Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+		// a leftover file would keep its permissions, while a new one is created readable by its owner only
+		Files.deleteIfExists(compacted);
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(compacted, OPEN_OPTIONS, ownerOnly(compacted))) {
+			mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+		}
+		mapped.putInt(MAGIC).putInt(VERSION);
+		for (byte[] record : pending.values()) {
+			mapped.put(record);
+		}
+		mapped.force();
+		Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		// the mapping outlives its channel and follows the file through the move; the previous mapping is released
+		// by the garbage collector, as Java 8 has no way to unmap a buffer
+		capacity = (int) newCapacity;
+		buffer = mapped;
+	}
+
+	private static FileAttribute<?>[] ownerOnly(Path file) {
+		if (!file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			return new FileAttribute<?>[0];
+		}
+		return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(
+				EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE))};
+	}
+
+	/**
+	 * Read the pending records of an existing file, then compact it, which truncates any record torn by a crash.
+	 */
+	private Map<Long, TwitchRequest<?>> recover() throws IOException {
+		if (Files.exists(path)) {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				ByteBuffer existing = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				if (existing.remaining() < FILE_HEADER || existing.getInt() != MAGIC || existing.getInt() != VERSION) {
+					throw new IOException("Not a request journal: " + path);
+				}
+				capacity = Math.max(capacity, existing.capacity());
+				scan(existing);
+			}
+		}
+		compact(0);
+		Map<Long, TwitchRequest<?>> requests = new LinkedHashMap<>();
+		for (Map.Entry<Long, byte[]> record : pending.entrySet()) {
+			byte[] bytes = record.getValue();
+			requests.put(record.getKey(), decode(bytes, RECORD_HEADER, bytes.length - RECORD_HEADER));
+		}
+		return requests;
+	}
+
+	private void scan(ByteBuffer existing) {
+		CRC32 crc = new CRC32();
+		while (existing.remaining() >= RECORD_HEADER) {
+			int position = existing.position();
+			int length = existing.getInt();
+			if (length < RECORD_HEADER - 4 || length > existing.remaining()) {
+				break;
+			}
+			int checksum = existing.getInt();
+			byte[] record = new byte[length + 4];
+			existing.position(position);
+			existing.get(record);
+			crc.reset();
+			crc.update(record, 8, record.length - 8);
+			if ((int) crc.getValue() != checksum) {
+				break;
+			}
+			long id = ByteBuffer.wrap(record, 9, 8).getLong();
+			if (record[8] == APPEND) {
+				pending.put(id, record);
+			} else {
+				pending.remove(id);
+			}
+			nextId = Math.max(nextId, id + 1);
+		}
+	}
+
+	private static byte[] record(byte type, long id, byte[] payload) {
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+		record.putInt(RECORD_HEADER - 4 + payload.length).putInt(0).put(type).putLong(id).put(payload);
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), 8, record.capacity() - 8);
+		record.putInt(4, (int) crc.getValue());
+		return record.array();
+	}
+
+	private byte[] encode(TwitchRequest<?> request) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		Route<?> route = request.getRoute();
+		out.writeUTF(route.getMethod().name());
+		out.writeUTF(route.getUriTemplate());
+		out.writeUTF(request.getCompleteUri());
+		out.writeUTF(objectMapper.getTypeFactory().constructType(route.getGenericResponseType()).toCanonical());
+
+		Object body = request.getBody();
+		if (body == null) {
+			out.writeByte(NO_BODY);
+		} else {
+			byte[] content = body instanceof CharSequence ? body.toString().getBytes(StandardCharsets.UTF_8)
+					: objectMapper.writeValueAsBytes(body);
+			out.writeByte(body instanceof CharSequence ? STRING_BODY : JSON_BODY);
+			out.writeInt(content.length);
+			out.write(content);
+		}
+
+		writeHeaders(out, request.getHeaders());
+		writeMultimap(out, request.getQueryParams());
+		Instant deadline = request.deadline();
+		out.writeBoolean(deadline != null);
+		if (deadline != null) {
+			out.writeLong(deadline.toEpochMilli());
+		}
+		return bytes.toByteArray();
+	}
+
+	private TwitchRequest<?> decode(byte[] bytes, int offset, int length) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset, length));
+		HttpMethod method = HttpMethod.valueOf(in.readUTF());
+		String uriTemplate = in.readUTF();
+		String completeUri = in.readUTF();
+		JavaType responseType;
+		try {
+			responseType = objectMapper.getTypeFactory().constructFromCanonical(in.readUTF());
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Unknown response type of a journaled request", e);
+		}
+		TwitchRequest<?> request = new TwitchRequest<>(Route.of(method, uriTemplate, responseType), completeUri);
+
+		byte kind = in.readByte();
+		if (kind != NO_BODY) {
+			byte[] content = new byte[in.readInt()];
+			in.readFully(content);
+			request.body(kind == STRING_BODY ? new String(content, StandardCharsets.UTF_8)
+					: objectMapper.readTree(content));
+		}
+
+		for (int i = in.readInt(); i > 0; i--) {
+			request.header(in.readUTF(), in.readUTF());
+		}
+		byte token = in.readByte();
+		if (token == TOKEN) {
+			request.header(AUTHORIZATION, in.readUTF());
+		} else if (token == TOKEN_REFERENCE) {
+			if (tokenStore == null) {
+				throw new IOException("A journaled request refers to its token, but the journal has no token store");
+			}
+			String authorization = tokenStore.resolve(in.readUTF());
+			if (authorization != null) {
+				request.header(AUTHORIZATION, authorization);
+			}
+		}
+		for (int i = in.readInt(); i > 0; i--) {
+			request.query(in.readUTF(), in.readUTF());
+		}
+		if (in.readBoolean()) {
+			request.deadline(Instant.ofEpochMilli(in.readLong()));
+		}
+		return request;
+	}
+
+	/**
+	 * Write the headers but the token, then the token itself, or its reference if there is a token store.
+	 */
+	private void writeHeaders(DataOutputStream out, @Nullable Multimap<String, String> headers) throws IOException {
+		if (headers == null || !headers.containsKey(AUTHORIZATION)) {
+			writeMultimap(out, headers);
+			out.writeByte(NO_TOKEN);
+			return;
+		}
+		Multimap<String, String> others = ArrayListMultimap.create(headers);
+		String authorization = others.removeAll(AUTHORIZATION).iterator().next();
+		writeMultimap(out, others);
+		if (tokenStore == null) {
+			out.writeByte(TOKEN);
+			out.writeUTF(authorization);
+		} else {
+			out.writeByte(TOKEN_REFERENCE);
+			out.writeUTF(tokenStore.reference(authorization));
+		}
+	}
+
+	private static void writeMultimap(DataOutputStream out, @Nullable Multimap<String, ?> values) throws IOException {
+		Collection<? extends Map.Entry<String, ?>> entries = values == null ? new ArrayList<>(0) : values.entries();
+		out.writeInt(entries.size());
+		for (Map.Entry<String, ?> entry : entries) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(String.valueOf(entry.getValue()));
+		}
+	}
+
+	/**
+	 * Keeps the tokens of journaled requests out of the journal file: the file holds a reference to each token, such
+	 * as the id of the user it belongs to, and replayed requests get the token the reference resolves to at that time.
+	 */
+	public interface TokenStore {
+
+		/**
+		 * Return the reference to store in place of a token.
+		 *
+		 * @param authorization the value of the {@code Authorization} header of a request
+		 * @return the reference to the token
+		 */
+		String reference(String authorization);
+
+		/**
+		 * Return the token a reference stands for, when replaying a request.
+		 *
+		 * @param reference a reference returned by {@link #reference(String)}, possibly by a previous run
+		 * @return the value of the {@code Authorization} header, or {@code null} to send the request without one
+		 */
+		@Nullable
+		String resolve(String reference);
+	}
+
+	/**
+	 * A mutable builder for a {@link RequestJournal}.
+	 */
+	public static class Builder {
+
+		private final Path path;
+		private final ObjectMapper objectMapper;
+		private int capacity = 1 << 20;
+		private Duration commitInterval = Duration.ofMillis(10);
+		@Nullable
+		private TokenStore tokenStore;
+
+		private Builder(Path path, ObjectMapper objectMapper) {
+			this.path = path;
+			this.objectMapper = objectMapper;
+		}
+
+		/**
+		 * Set the initial size of the journal file. The file grows when the pending requests alone fill it.
+		 *
+		 * @param capacity the size of the file in bytes, 1 MB by default
+		 * @return this builder
+		 */
+		public Builder capacity(int capacity) {
+			if (capacity < FILE_HEADER + RECORD_HEADER) {
+				throw new IllegalArgumentException("Capacity is too small: " + capacity);
+			}
+			this.capacity = capacity;
+			return this;
+		}
+
+		/**
+		 * Set how long an appended record may wait for the next {@code fsync}, which covers every record appended in
+		 * the meantime.
+		 *
+		 * @param commitInterval the group commit interval, 10 milliseconds by default
+		 * @return this builder
+		 */
+		public Builder commitInterval(Duration commitInterval) {
+			if (commitInterval.isNegative()) {
+				throw new IllegalArgumentException("Commit interval must not be negative: " + commitInterval);
+			}
+			this.commitInterval = commitInterval;
+			return this;
+		}
+
+		/**
+		 * Store references to the tokens of the requests instead of the tokens themselves.
+		 *
+		 * @param tokenStore the store resolving the references, or {@code null} to store the tokens in the file, the
+		 *                   default
+		 * @return this builder
+		 */
+		public Builder tokenStore(@Nullable TokenStore tokenStore) {
+			this.tokenStore = tokenStore;
+			return this;
+		}
+
+		/**
+		 * Open the {@link RequestJournal}, reading the requests left pending by a previous run.
+		 *
+		 * @return a journal
+		 * @throws UncheckedIOException if the file cannot be read or written
+		 */
+		public RequestJournal build() {
+			try {
+				return new RequestJournal(this);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
@@ -1,163 +1,731 @@
 package twitch4j.stream.rest.request;
 
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
 import java.time.Duration;
-import java.util.LinkedHashMap;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
+import javax.annotation.Nullable;
 
-import lombok.RequiredArgsConstructor;
-import reactor.core.publisher.EmitterProcessor;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoProcessor;
-import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.core.scheduler.Schedulers;
 import reactor.retry.BackoffDelay;
 import reactor.retry.Retry;
 import reactor.retry.RetryContext;
-import reactor.util.function.Tuple2;
 import twitch4j.stream.rest.http.client.ClientException;
 import twitch4j.stream.rest.http.client.ExchangeFilter;
+import twitch4j.stream.rest.http.client.ExchangeListener;
 import twitch4j.stream.rest.http.client.SimpleHttpClient;
 import twitch4j.stream.util.RouteUtils;
 
 /**
- * A stream of {@link twitch4j.stream.rest.request.TwitchRequest TwitchRequests}. Any number of items may be
- * {@link #push(Tuple2)} written to the stream. However, the
- * {@link twitch4j.stream.rest.request.RequestStream.Reader reader} ensures that only one is read at a time. This
- * linearization ensures proper ratelimit handling.
+ * A stream of {@link twitch4j.stream.rest.request.TwitchRequest TwitchRequests} falling in the same bucket. Any number
+ * of items may be {@link #push(MonoProcessor, TwitchRequest)} written to the stream.
+ * <p>
+ * Requests are queued in a {@link Lane lane} per OAuth token, plus one for requests without a token, and each lane
+ * sends only one request at a time. This linearization ensures proper ratelimit handling, while a token waiting for its
+ * ratelimit to reset never holds back the requests of other tokens. If the {@link RateLimitPolicy} does not count
+ * points per token, all requests share a single lane instead. Idle lanes with queued requests take turns in
+ * round-robin order. Cancelled requests are skipped without being sent, and cancelling a request in flight aborts its
+ * exchange. While the {@link CircuitBreaker} of the host or the bucket is open, queued requests fail without being
+ * sent. When hedging is enabled, a slow GET request is raced against a second identical one.
  *
  * @param <T> The type of items in the stream.
  */
-@RequiredArgsConstructor
 class RequestStream<T> {
 
-	private final EmitterProcessor<Tuple2<MonoProcessor<T>, TwitchRequest<T>>> backing = EmitterProcessor.create(false);
+	private static final String NO_TOKEN = "";
+
 	private final SimpleHttpClient httpClient;
-	private final Duration defaultDuration;
-	/**
-	 * The retry function used for reading and completing HTTP requests. The back off is determined by the ratelimit
-	 * headers returned by Twitch in the event of a 429. If the Helix endpoint is being globally ratelimited, the back off is
-	 * applied to the concurrent rate limits if have a some condition:
-	 * <ul>
-	 *     <li>Default Rate Limit request for Helix is <b>30</b> per minute per IP</li>
-	 *     <li>Bearer Rate Limit request for Helix is <b>120</b> per minute per Client ID</li>
-	 *     <li>Default Rate Limit request for Kraken
-	 *     (<a href="https://dev.twitch.tv/docs/v5/#which-api-version-can-you-use">deprecated</a>)
-	 *     is <b>1</b> per second no matter what</li>
-	 * </ul>
-	 * Otherwise, it is applied only to this stream.
-	 */
-	private final Retry<AtomicLong> retryFactory = Retry.onlyIf((Predicate<RetryContext<AtomicLong>>) ctx -> {
-		Throwable exception = ctx.exception();
-		if (exception instanceof ClientException) {
-			ClientException clientException = (ClientException) exception;
-			if (clientException.getStatus().code() == 429) { // TODO: retry on other status codes?
-				long resetAt = Long.parseLong(clientException.getHeaders().get("Ratelimit-Reset"));
-				long unixTime = clientException.getHeaders().getTimeMillis("Date") / 1000;
-				ctx.applicationContext().set(resetAt - unixTime);
-				return true;
+	private final BucketKey bucket;
+	private final RateLimitPolicy rateLimitPolicy;
+	private final StreamMetrics metrics;
+	private final RateLimitListener rateLimitListener;
+	@Nullable
+	private final CircuitBreaker hostBreaker;
+	@Nullable
+	private final CircuitBreaker bucketBreaker;
+	@Nullable
+	private final HedgePolicy hedgePolicy;
+
+	/**
+	 * The retry function used for reading and completing HTTP requests. In the event of a 429, the back off is
+	 * determined by the {@link RateLimitPolicy#retryAfter(HttpHeaders) rate limit policy} from the headers returned by
+	 * Twitch.
+	 */
+	private final Retry<Object> retryFactory = Retry.onlyIf(ctx -> isRateLimited(ctx.exception()))
+			// the backoff function is typed with Context, but is always given the RetryContext of the failed attempt
+			.backoff(ctx -> new BackoffDelay(retryAfter(((RetryContext<?>) ctx).exception())))
+			.doOnRetry(this::onRetry);
+
+	/**
+	 * The lanes of this bucket by token, guarded by {@code this}.
+	 */
+	private final Map<String, Lane> lanes = new HashMap<>();
+	/**
+	 * The idle lanes with queued requests, in the order they take turns, guarded by {@code this}.
+	 */
+	private final Queue<Lane> ready = new ArrayDeque<>();
+	/**
+	 * The idle lanes without queued requests that are still cooling down, by the time they may be dropped, guarded by
+	 * {@code this}.
+	 */
+	private final Queue<Cooldown> cooling = new PriorityQueue<>();
+	/**
+	 * When requests of every lane may be sent again, in {@link System#nanoTime()}, guarded by {@code this}.
+	 */
+	private long bucketReadyAt;
+	@Nullable
+	private Disposable wakeUp;
+	private long wakeUpAt;
+
+	private void onRetry(RetryContext<Object> context) {
+		metrics.retries.increment();
+	}
+
+	/**
+	 * Create the stream of a bucket, with the instruments, circuit breaker and hedging state of that bucket as
+	 * configured by the given options.
+	 *
+	 * @param httpClient        the client sending the requests
+	 * @param bucket            the bucket of the requests of this stream
+	 * @param options           the router configuration
+	 * @param metrics           the instruments of the route of this bucket
+	 * @param rateLimitPolicy   the pacing of the requests, resolved once by the router
+	 * @param hostBreaker       the circuit breaker shared by every bucket of the host, if enabled
+	 * @param rateLimitListener the consumer of the rate limit state reported by each response
+	 */
+	RequestStream(SimpleHttpClient httpClient, BucketKey bucket, RouterOptions options, StreamMetrics metrics,
+				  RateLimitPolicy rateLimitPolicy, @Nullable CircuitBreaker hostBreaker,
+				  RateLimitListener rateLimitListener) {
+		this.httpClient = httpClient;
+		this.bucket = bucket;
+		this.rateLimitPolicy = rateLimitPolicy;
+		this.metrics = metrics;
+		this.rateLimitListener = rateLimitListener;
+		this.hostBreaker = hostBreaker;
+		this.bucketBreaker = options.getCircuitBreaker() == null ? null
+				: new CircuitBreaker(bucket.toString(), options.getCircuitBreaker());
+		this.hedgePolicy = options.getHedging() == null ? null : new HedgePolicy(options.getHedging());
+	}
+
+	/**
+	 * Queue a request for sending.
+	 *
+	 * @param callback the processor receiving the response
+	 * @param request  the request to send
+	 * @return a handle to cancel the request, which skips it if still queued and aborts it if in flight
+	 */
+	Disposable push(MonoProcessor<T> callback, TwitchRequest<T> request) {
+		metrics.queueDepth.incrementAndGet();
+		RequestTimings timings = request.newTimings();
+		timings.onQueued();
+		Entry<T> entry = new Entry<>(metrics, callback, request, timings, metrics.now());
+		synchronized (this) {
+			Lane lane = lanes.computeIfAbsent(rateLimitPolicy.isPerToken() ? token(request) : NO_TOKEN, Lane::new);
+			lane.queue.add(entry);
+			if (!lane.busy && !lane.scheduled) {
+				lane.scheduled = true;
+				ready.add(lane);
 			}
 		}
-		return false;
-	}).backoff(context -> {
-		if (context.applicationContext() == null) {
-			return new BackoffDelay(Duration.ZERO);
+		drain();
+		return entry;
+	}
+
+	/**
+	 * Return the circuit breaker of this bucket.
+	 *
+	 * @return the circuit breaker, or {@code null} if circuit breakers are disabled
+	 */
+	@Nullable
+	CircuitBreaker getBucketBreaker() {
+		return bucketBreaker;
+	}
+
+	/**
+	 * Check whether requests would be rejected right now, without taking any trial permit.
+	 *
+	 * @return the open circuit breaker of the host or this bucket, or {@code null} if requests may be queued
+	 */
+	@Nullable
+	CircuitBreaker openCircuit() {
+		CircuitBreaker open = hostBreaker != null && hostBreaker.isOpen() ? hostBreaker
+				: bucketBreaker != null && bucketBreaker.isOpen() ? bucketBreaker : null;
+		if (open != null) {
+			metrics.rejected.increment();
 		}
+		return open;
+	}
 
-		long delay = ((AtomicLong) context.applicationContext()).get();
-		((AtomicLong) context.applicationContext()).set(0L);
-		return new BackoffDelay(Duration.ofMillis(delay));
-	}).withApplicationContext(new AtomicLong());
+	/**
+	 * Send the head request of every lane that is idle and not cooling down.
+	 */
+	private void drain() {
+		List<Entry<T>> shed = new ArrayList<>(0);
+		for (Dispatch<T> dispatch : poll(shed)) {
+			dispatch.run();
+		}
+		for (Entry<T> entry : shed) {
+			metrics.queueDepth.decrementAndGet();
+			if (entry.rejectedBy != null) {
+				metrics.rejected.increment();
+				entry.callback.onError(new CircuitOpenException(entry.rejectedBy));
+			} else {
+				metrics.expired.increment();
+				entry.callback.onError(new DeadlineExceededException(entry.request, entry.request.deadline(), false,
+						null));
+			}
+		}
+	}
 
-	void push(Tuple2<MonoProcessor<T>, TwitchRequest<T>> request) {
-		backing.onNext(request);
+	/**
+	 * Take the head request of every lane that is idle and not cooling down. Requests whose deadline has passed, and
+	 * requests rejected by an open circuit breaker, are shed into the given list without spending any rate limit
+	 * point on them. Cancelled requests are skipped.
+	 */
+	private synchronized List<Dispatch<T>> poll(List<Entry<T>> shed) {
+		long now = System.nanoTime();
+		sweep(now);
+		if (bucketReadyAt > now) {
+			scheduleWakeUp(bucketReadyAt, now);
+			return new ArrayList<>(0);
+		}
+		List<Dispatch<T>> dispatches = new ArrayList<>(Math.min(ready.size(), 16));
+		long nextAt = Long.MAX_VALUE;
+		Instant wallClock = null;
+		for (int i = ready.size(); i > 0; i--) {
+			Lane lane = ready.remove();
+			if (lane.readyAt > now) {
+				ready.add(lane);
+				nextAt = Math.min(nextAt, lane.readyAt);
+				continue;
+			}
+			Entry<T> entry;
+			while ((entry = lane.queue.poll()) != null) {
+				Instant deadline = entry.request.deadline();
+				if (deadline != null) {
+					if (wallClock == null) {
+						wallClock = Instant.now();
+					}
+					if (!deadline.isAfter(wallClock)) {
+						if (entry.transition(Entry.EXPIRED)) {
+							shed.add(entry);
+						}
+						continue;
+					}
+				}
+				if (entry.transition(Entry.DISPATCHED)) {
+					entry.rejectedBy = acquire();
+					if (entry.rejectedBy == null) {
+						break;
+					}
+					shed.add(entry);
+				}
+			}
+			lane.scheduled = false;
+			if (entry != null) {
+				lane.busy = true;
+				dispatches.add(new Dispatch<>(this, lane, entry));
+			}
+		}
+		if (nextAt != Long.MAX_VALUE) {
+			scheduleWakeUp(nextAt, now);
+		}
+		return dispatches;
 	}
 
-	void start() {
-		read().subscribe(new Reader());
+	/**
+	 * Free the lane once its request is complete, after the delay required by the API.
+	 */
+	private synchronized void release(Lane lane, Duration delay, boolean wholeBucket) {
+		long readyAt = System.nanoTime() + delay.toNanos();
+		if (wholeBucket) {
+			bucketReadyAt = Math.max(bucketReadyAt, readyAt);
+		} else {
+			lane.readyAt = Math.max(lane.readyAt, readyAt);
+		}
+		lane.busy = false;
+		long now = System.nanoTime();
+		if (!lane.queue.isEmpty()) {
+			lane.scheduled = true;
+			ready.add(lane);
+		} else if (lane.readyAt <= now) {
+			lanes.remove(lane.token);
+		} else {
+			// drop the lane once it has cooled down, unless it gets new requests by then
+			cooling.add(new Cooldown(lane, lane.readyAt));
+			scheduleWakeUp(lane.readyAt, now);
+		}
 	}
 
-	private Mono<Tuple2<MonoProcessor<T>, TwitchRequest<T>>> read() {
-		return backing.next();
+	/**
+	 * Drop the lanes that cooled down without getting new requests.
+	 */
+	private void sweep(long now) {
+		Cooldown cooldown;
+		while ((cooldown = cooling.peek()) != null && cooldown.readyAt <= now) {
+			cooling.remove();
+			Lane lane = cooldown.lane;
+			if (!lane.busy && lane.queue.isEmpty() && lane.readyAt <= now) {
+				lanes.remove(lane.token, lane);
+			}
+		}
 	}
 
 	/**
-	 * Reads and completes one request from the stream at a time. If a request fails, it is retried according to the
-	 * {@link #retryFactory retry function}. The reader may wait in between each request if preemptive ratelimiting is
-	 * necessary according to the response headers.
+	 * Take a permit from the circuit breakers of the host and this bucket.
 	 *
-	 * @see #sleepTime
+	 * @return the circuit breaker rejecting the request, or {@code null} if it may be sent
+	 */
+	@Nullable
+	private CircuitBreaker acquire() {
+		if (hostBreaker != null && !hostBreaker.tryAcquire()) {
+			return hostBreaker;
+		}
+		if (bucketBreaker != null && !bucketBreaker.tryAcquire()) {
+			if (hostBreaker != null) {
+				hostBreaker.onIgnored();
+			}
+			return bucketBreaker;
+		}
+		return null;
+	}
+
+	private void onResult(long startedAt, @Nullable Throwable error) {
+		if (hostBreaker == null && bucketBreaker == null) {
+			return;
+		}
+		long duration = System.nanoTime() - startedAt;
+		boolean failure = isFailure(error);
+		if (hostBreaker != null) {
+			hostBreaker.onResult(duration, failure);
+		}
+		if (bucketBreaker != null) {
+			bucketBreaker.onResult(duration, failure);
+		}
+	}
+
+	private void onIgnored() {
+		if (hostBreaker != null) {
+			hostBreaker.onIgnored();
+		}
+		if (bucketBreaker != null) {
+			bucketBreaker.onIgnored();
+		}
+	}
+
+	/**
+	 * Whether an error tells that the server is unhealthy: server errors and I/O errors are, while client errors
+	 * including 429, and deadlines chosen by the caller, are not.
 	 */
-	private class Reader implements Consumer<Tuple2<MonoProcessor<T>, TwitchRequest<T>>> {
+	private static boolean isFailure(@Nullable Throwable error) {
+		if (error == null || error instanceof DeadlineExceededException) {
+			return false;
+		}
+		if (error instanceof ClientException) {
+			return ((ClientException) error).getStatus().code() >= 500;
+		}
+		return true;
+	}
+
+	private void scheduleWakeUp(long at, long now) {
+		if (wakeUp == null || at < wakeUpAt) {
+			if (wakeUp != null) {
+				wakeUp.dispose();
+			}
+			wakeUpAt = at;
+			wakeUp = Schedulers.parallel().schedule(this::wakeUp, at - now, TimeUnit.NANOSECONDS);
+		}
+	}
 
-		private volatile Duration sleepTime = Duration.ZERO;
-		private final Map<String, Duration> tokenSleepTime = new LinkedHashMap<>();
+	private void wakeUp() {
+		synchronized (this) {
+			wakeUp = null;
+		}
+		drain();
+	}
+
+	private static String token(TwitchRequest<?> request) {
+		// header names are lower-cased by TwitchRequest#header
+		if (request.headers() == null || !request.headers().containsKey("authorization")) {
+			return NO_TOKEN;
+		}
+		return request.headers().get("authorization").iterator().next();
+	}
+
+	private static boolean isRateLimited(Throwable exception) {
+		return exception instanceof ClientException && ((ClientException) exception).getStatus().code() == 429;
+	}
+
+	private Duration retryAfter(Throwable exception) {
+		if (!isRateLimited(exception)) {
+			return Duration.ZERO;
+		}
+		return rateLimitPolicy.retryAfter(((ClientException) exception).getHeaders());
+	}
+
+	/**
+	 * The observer of the rate limit state reported by each response. Snapshots are only built while it is observed.
+	 */
+	interface RateLimitListener {
+
+		boolean isObserved();
+
+		void onRateLimit(RateLimitSnapshot snapshot);
+	}
+
+	/**
+	 * The queue and ratelimit state of a single token within the bucket, or of the whole bucket if the rate limit
+	 * policy is not per token. All fields but {@link #remaining} are guarded by the stream.
+	 */
+	private class Lane {
+
+		private final String token;
+		private final Queue<Entry<T>> queue = new ArrayDeque<>();
+		/**
+		 * Whether a request of this lane is being sent.
+		 */
+		private boolean busy;
+		/**
+		 * Whether this lane is waiting for its turn in the ready queue.
+		 */
+		private boolean scheduled;
+		/**
+		 * When this token may send requests again, in {@link System#nanoTime()}.
+		 */
+		private long readyAt;
+		/**
+		 * The rate limit points left to this token as of its latest response, -1 if unknown, also charged for each
+		 * hedge.
+		 */
+		private final AtomicLong remaining = new AtomicLong(-1);
+
+		private Lane(String token) {
+			this.token = token;
+		}
+	}
+
+	/**
+	 * A lane that had no queued request when it was released, and when it may be dropped.
+	 */
+	private class Cooldown implements Comparable<Cooldown> {
+
+		private final Lane lane;
+		private final long readyAt;
+
+		private Cooldown(Lane lane, long readyAt) {
+			this.lane = lane;
+			this.readyAt = readyAt;
+		}
+
+		@Override
+		public int compareTo(Cooldown other) {
+			return Long.compare(readyAt, other.readyAt);
+		}
+	}
+
+	/**
+	 * A queued request. Cancelling it only flags it, and the lane skips it when it reaches the head of the queue, so
+	 * cancellation is constant time.
+	 */
+	private static class Entry<T> implements Disposable {
+
+		private static final int QUEUED = 0;
+		private static final int DISPATCHED = 1;
+		private static final int EXPIRED = 2;
+		private static final int CANCELLED = 3;
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<Entry> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+		private final StreamMetrics metrics;
+		private final MonoProcessor<T> callback;
+		private final TwitchRequest<T> request;
+		private final RequestTimings timings;
+		private final long enqueuedAt;
+
+		private volatile int state = QUEUED;
+		private volatile boolean cancelRequested;
+		@Nullable
+		private volatile Subscription inFlight;
+		/**
+		 * The circuit breaker that rejected this request when it was taken from its lane, guarded by the stream.
+		 */
+		@Nullable
+		private CircuitBreaker rejectedBy;
+
+		private Entry(StreamMetrics metrics, MonoProcessor<T> callback, TwitchRequest<T> request,
+					  RequestTimings timings, long enqueuedAt) {
+			this.metrics = metrics;
+			this.callback = callback;
+			this.request = request;
+			this.timings = timings;
+			this.enqueuedAt = enqueuedAt;
+		}
+
+		/**
+		 * Move a queued request to the given state.
+		 *
+		 * @return {@code false} if the request is no longer queued, because it was cancelled
+		 */
+		private boolean transition(int to) {
+			return STATE.compareAndSet(this, QUEUED, to);
+		}
+
+		/**
+		 * Abort the exchange if the request was cancelled while it was being dispatched.
+		 */
+		private void onDispatched(Subscription exchange) {
+			inFlight = exchange;
+			if (cancelRequested) {
+				exchange.cancel();
+			}
+		}
+
+		@Override
+		public void dispose() {
+			cancelRequested = true;
+			if (transition(CANCELLED)) {
+				metrics.queueDepth.decrementAndGet();
+				metrics.cancelled.increment();
+			} else {
+				Subscription exchange = inFlight;
+				if (exchange != null) {
+					exchange.cancel();
+				}
+			}
+		}
 
-		@SuppressWarnings("ConstantConditions")
 		@Override
-		public void accept(Tuple2<MonoProcessor<T>, TwitchRequest<T>> tuple) {
-			MonoProcessor<T> callback = tuple.getT1();
-			TwitchRequest<T> req = tuple.getT2();
-			String token = (req.headers() != null && req.headers().containsKey("Authorization")) ? req.headers().get("Authorization").iterator().next() : null;
+		public boolean isDisposed() {
+			return cancelRequested;
+		}
+	}
+
+	/**
+	 * Sends a single request and completes its callback. If the request fails, it is retried according to the
+	 * {@link #retryFactory retry function}. The lane, or the whole bucket, may then wait before its next request as
+	 * paced by the {@link RateLimitPolicy} from the last response headers.
+	 */
+	private static class Dispatch<T> {
+
+		private final RequestStream<T> stream;
+		private final RequestStream<T>.Lane lane;
+		private final Entry<T> entry;
+		@Nullable
+		private final String token;
+		/**
+		 * Whether the circuit breaker permit taken when the request left its lane is still unused.
+		 */
+		private final AtomicBoolean permit = new AtomicBoolean(true);
+
+		private volatile boolean settled;
+		@Nullable
+		private volatile HttpHeaders lastResponse;
+
+		private Dispatch(RequestStream<T> stream, RequestStream<T>.Lane lane, Entry<T> entry) {
+			this.stream = stream;
+			this.lane = lane;
+			this.entry = entry;
+			String authorization = token(entry.request);
+			this.token = authorization.isEmpty() ? null : authorization;
+		}
+
+		private void run() {
+			StreamMetrics metrics = stream.metrics;
+			MonoProcessor<T> callback = entry.callback;
+			TwitchRequest<T> req = entry.request;
+			metrics.queueDepth.decrementAndGet();
+			metrics.recordSince(metrics.queueWait, entry.enqueuedAt);
+			long dispatchedAt = metrics.now();
+			RequestTimings timings = entry.timings;
+			timings.onDispatched();
+
+			HedgePolicy hedgePolicy = stream.hedgePolicy;
+			Mono<T> exchange = Mono.defer(() -> {
+				CircuitBreaker rejectedBy = takePermit();
+				if (rejectedBy != null) {
+					metrics.rejected.increment();
+					return Mono.error(new CircuitOpenException(rejectedBy));
+				}
+				return hedgePolicy != null && req.getRoute().getMethod() == HttpMethod.GET
+						? hedge(hedgePolicy)
+						: attempt(timings, this::pace);
+			}).retryWhen(stream.retryFactory);
+			Instant deadline = req.deadline();
+			if (deadline != null) {
+				exchange = exchange.timeout(Duration.between(Instant.now(), deadline))
+						.onErrorMap(TimeoutException.class, t -> new DeadlineExceededException(req, deadline, true, t));
+			}
+
+			exchange.doOnSuccess(value -> {
+						settled = true;
+						metrics.recordSince(metrics.latency, dispatchedAt);
+						metrics.recordPhases(timings);
+					})
+					.doOnError(error -> {
+						settled = true;
+						metrics.errors.increment();
+						metrics.recordSince(metrics.latency, dispatchedAt);
+						metrics.recordPhases(timings);
+					})
+					.doOnCancel(() -> {
+						// the callback also cancels the exchange once it has its value, which is not an abort
+						if (!settled) {
+							metrics.aborted.increment();
+						}
+					})
+					// the lane is released on any signal, including a cancellation
+					.doFinally(signal -> next())
+					.doOnSubscribe(entry::onDispatched)
+					.subscribe(callback);
+		}
+
+		/**
+		 * Take a circuit breaker permit for an attempt of the request. The first attempt uses the permit taken when
+		 * the request left its lane, and every retry takes a new one.
+		 *
+		 * @return the circuit breaker rejecting the attempt, or {@code null} if it may be sent
+		 */
+		@Nullable
+		private CircuitBreaker takePermit() {
+			return permit.compareAndSet(true, false) ? null : stream.acquire();
+		}
+
+		/**
+		 * Build a single exchange of the request, notifying its phases to the given listener and its response headers
+		 * to the given consumer. When circuit breakers are enabled, the exchange is reported to them as a call of its
+		 * own, timed from its own subscription so the backoff before a retry is not counted.
+		 */
+		private Mono<T> attempt(ExchangeListener listener, Consumer<HttpHeaders> onResponse) {
+			StreamMetrics metrics = stream.metrics;
+			TwitchRequest<T> req = entry.request;
 			ExchangeFilter exchangeFilter = ExchangeFilter.builder()
 					.requestFilter(request -> Optional.ofNullable(req.getHeaders())
 							.ifPresent(headers -> headers.forEach(request::header)))
 					.responseFilter(response -> {
 						HttpHeaders headers = response.responseHeaders();
-						int remaining = headers.getInt("Ratelimit-Remaining", -1);
-
-						if (remaining == 0) {
-							long resetAt = Long.parseLong(headers.get("Ratelimit-Reset"));
-							long unixTime = headers.getTimeMillis("Date") / 1000;
-							if (headers.getInt("Ratelimit-Limit") == 120 && token != null) {
-								tokenSleepTime.put(token, Duration.ofSeconds(resetAt - unixTime));
-							} else {
-								sleepTime = Duration.ofSeconds(resetAt - unixTime);
-							}
+						onResponse.accept(headers);
+						if (response.status().code() == 429) {
+							metrics.rateLimited.increment();
+						}
+						RateLimitPolicy.Points points = stream.rateLimitPolicy.points(headers);
+						if (points != null) {
+							metrics.remaining.set(points.getRemaining());
+							lane.remaining.set(points.getRemaining());
+						}
+						if (points != null && stream.rateLimitListener.isObserved()) {
+							stream.rateLimitListener.onRateLimit(new RateLimitSnapshot(stream.bucket.toString(),
+									token == null ? null : RateLimitSnapshot.redact(token), points.getLimit(),
+									points.getRemaining(), points.getResetAt(), metrics.queueDepth.get()));
 						}
 					})
+					.listener(listener)
 					.build();
 
-			httpClient.exchange(req.getRoute().getMethod(),
-							RouteUtils.expandQuery(req.getCompleteUri(), req.getQueryParams()), req.getBody(),
-							req.getRoute().getResponseType(), exchangeFilter)
-					.retryWhen(retryFactory)
-					.materialize()
-					.subscribe(signal -> {
-						if (signal.isOnSubscribe()) {
-							callback.onSubscribe(signal.getSubscription());
-						} else if (signal.isOnNext()) {
-							callback.onNext(signal.get());
-						} else if (signal.isOnError()) {
-							callback.onError(signal.getThrowable());
-						} else if (signal.isOnComplete()) {
-							callback.onComplete();
-						}
+			Mono<T> exchange = stream.httpClient.exchange(req.getRoute().getMethod(),
+					RouteUtils.expandQuery(req.getCompleteUri(), req.getQueryParams()), req.getBody(),
+					req.getRoute().getResponseType(), req.getRoute().getGenericResponseType(), exchangeFilter);
+			if (stream.hostBreaker == null && stream.bucketBreaker == null) {
+				return exchange;
+			}
+			return Mono.defer(() -> {
+				long startedAt = System.nanoTime();
+				AtomicBoolean reported = new AtomicBoolean();
+				return exchange.doOnSuccessOrError((value, error) -> {
+							if (reported.compareAndSet(false, true)) {
+								stream.onResult(startedAt, error);
+							}
+						})
+						.doOnCancel(() -> {
+							// also called once the value is delivered, or when the exchange loses a hedging race
+							if (reported.compareAndSet(false, true)) {
+								stream.onIgnored();
+							}
+						});
+			});
+		}
+
+		/**
+		 * Keep the headers of the response that was used, from which the rate limit policy paces the next request of
+		 * the lane, or of the whole bucket.
+		 */
+		private void pace(HttpHeaders headers) {
+			lastResponse = headers;
+		}
+
+		/**
+		 * Race the exchange against an identical one sent if it has not answered after the hedging delay, and cancel
+		 * the slower one. The hedge takes a permit from the circuit breakers and is charged to the rate limit points
+		 * of the lane; it is not sent if either refuses.
+		 */
+		private Mono<T> hedge(HedgePolicy hedgePolicy) {
+			return Mono.defer(() -> {
+				long attemptedAt = System.nanoTime();
+				hedgePolicy.onRequest();
+				AtomicBoolean decided = new AtomicBoolean();
+				Mono<T> hedge = Mono.delay(Duration.ofNanos(hedgePolicy.getDelay()))
+						.flatMap(tick -> {
+							if (stream.acquire() != null) {
+								return Mono.never();
+							}
+							if (!hedgePolicy.tryHedge(lane.remaining)) {
+								stream.onIgnored();
+								return Mono.never();
+							}
+							stream.metrics.hedges.increment();
+							return racer(decided);
+						});
+				return Mono.first(racer(decided), hedge)
+						.doOnSuccess(value -> hedgePolicy.onLatency(System.nanoTime() - attemptedAt));
+			});
+		}
 
-						if (httpClient.getBaseUrl().contains("helix")) {
-							if (token != null) {
-								Mono.delay(tokenSleepTime.get(token))
-										.subscribe(l -> {
-											tokenSleepTime.remove(token);
-											read().subscribe(this);
-										});
-							} else {
-								Mono.delay(sleepTime).subscribe(l -> {
-									sleepTime = Duration.ZERO;
-									read().subscribe(this);
-								});
+		/**
+		 * Build one of two raced exchanges. Each records its phases and response headers apart, and only the first to
+		 * terminate, whose signal is the one used, has them kept for the request and its pacing.
+		 */
+		private Mono<T> racer(AtomicBoolean decided) {
+			RequestTimings racerTimings = new RequestTimings();
+			AtomicReference<HttpHeaders> response = new AtomicReference<>();
+			return attempt(racerTimings, response::set)
+					.doOnSuccessOrError((value, error) -> {
+						if (decided.compareAndSet(false, true)) {
+							entry.timings.onSettled(racerTimings);
+							HttpHeaders headers = response.get();
+							if (headers != null) {
+								pace(headers);
 							}
-						} else if (httpClient.getBaseUrl().contains("kraken")) {
-							Mono.delay(Duration.ofSeconds(1))
-									.subscribe(l -> read().subscribe(this));
-						} else {
-							Mono.delay(defaultDuration)
-									.subscribe(l -> read().subscribe(this));
 						}
 					});
 		}
+
+		/**
+		 * Release the lane once the exchange terminates or is cancelled, and send the next requests.
+		 */
+		private void next() {
+			RateLimitPolicy.Pacing pacing = stream.rateLimitPolicy.pace(lastResponse, token != null);
+			stream.release(lane, pacing.getDelay(), pacing.isWholeBucket());
+			stream.drain();
+		}
 	}
 }
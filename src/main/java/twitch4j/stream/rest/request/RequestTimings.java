@@ -0,0 +1,181 @@
+package twitch4j.stream.rest.request;
+
+import java.time.Duration;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+import twitch4j.stream.rest.http.client.ExchangeListener;
+
+/**
+ * The time a {@link TwitchRequest} spent in each phase of its latest exchange, to tell whether a slow call waited on
+ * the rate limiter, on the connection pool or on the server.
+ * <p>
+ * Phases that have not happened, yet or at all, report {@link Duration#ZERO}. When the exchange is retried, the phases
+ * after the queue wait describe the latest attempt. Each time a request is queued it gets new timings, so sending the
+ * same request again does not change the timings of its previous exchanges.
+ *
+ * @see TwitchRequest#timings()
+ * @since 1.0
+ */
+public class RequestTimings implements ExchangeListener {
+
+	private volatile long queuedAt;
+	private volatile long dispatchedAt;
+	private volatile long startedAt;
+	private volatile long connectedAt;
+	private volatile long sentAt;
+	private volatile long respondedAt;
+	private volatile long completedAt;
+	private volatile int attempts;
+
+	void onQueued() {
+		queuedAt = System.nanoTime();
+		dispatchedAt = startedAt = connectedAt = sentAt = respondedAt = completedAt = 0;
+		attempts = 0;
+	}
+
+	void onDispatched() {
+		dispatchedAt = System.nanoTime();
+	}
+
+	/**
+	 * Take the phases of the exchange whose response was used, when it was raced against a hedge.
+	 */
+	void onSettled(RequestTimings exchange) {
+		startedAt = exchange.startedAt;
+		connectedAt = exchange.connectedAt;
+		sentAt = exchange.sentAt;
+		respondedAt = exchange.respondedAt;
+		completedAt = exchange.completedAt;
+		attempts++;
+	}
+
+	@Override
+	public void onExchangeStart() {
+		startedAt = System.nanoTime();
+		connectedAt = sentAt = respondedAt = completedAt = 0;
+		attempts++;
+	}
+
+	@Override
+	public void onConnected() {
+		connectedAt = System.nanoTime();
+	}
+
+	@Override
+	public void onRequestSent() {
+		sentAt = System.nanoTime();
+	}
+
+	@Override
+	public void onResponse(HttpClientResponse response) {
+		respondedAt = System.nanoTime();
+	}
+
+	@Override
+	public void onBodyDecoded() {
+		completedAt = System.nanoTime();
+	}
+
+	@Override
+	public void onError(Throwable error) {
+		completedAt = System.nanoTime();
+	}
+
+	/**
+	 * The time spent waiting in the bucket queue, including any rate limit cooldown.
+	 *
+	 * @return the queue wait
+	 */
+	public Duration getQueueWait() {
+		return between(queuedAt, dispatchedAt);
+	}
+
+	/**
+	 * The time spent acquiring a connection from the pool, or opening it and completing its TLS handshake.
+	 *
+	 * @return the connection time
+	 */
+	public Duration getConnect() {
+		return between(startedAt, connectedAt);
+	}
+
+	/**
+	 * The time spent writing the request headers and body.
+	 *
+	 * @return the write time
+	 */
+	public Duration getRequestWrite() {
+		return between(connectedAt, sentAt);
+	}
+
+	/**
+	 * The time between writing the request and receiving the response status and headers.
+	 *
+	 * @return the time to first byte
+	 */
+	public Duration getTimeToFirstByte() {
+		return between(sentAt, respondedAt);
+	}
+
+	/**
+	 * The time spent receiving and decoding the response body.
+	 *
+	 * @return the decoding time
+	 */
+	public Duration getDecode() {
+		return between(respondedAt, completedAt);
+	}
+
+	/**
+	 * The time between queueing the request and completing its exchange.
+	 *
+	 * @return the total time
+	 */
+	public Duration getTotal() {
+		return between(queuedAt, completedAt);
+	}
+
+	/**
+	 * The number of times the exchange was attempted, including retries.
+	 *
+	 * @return the number of attempts
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 * The connection time in nanoseconds, or -1 if the exchange did not connect.
+	 */
+	long connectNanos() {
+		return nanosBetween(startedAt, connectedAt);
+	}
+
+	/**
+	 * The time to first byte in nanoseconds, or -1 if no response was received.
+	 */
+	long timeToFirstByteNanos() {
+		return nanosBetween(sentAt, respondedAt);
+	}
+
+	/**
+	 * The decoding time in nanoseconds, or -1 if no response was received or it was not decoded.
+	 */
+	long decodeNanos() {
+		return nanosBetween(respondedAt, completedAt);
+	}
+
+	private static Duration between(long start, long end) {
+		return start == 0 || end == 0 ? Duration.ZERO : Duration.ofNanos(end - start);
+	}
+
+	private static long nanosBetween(long start, long end) {
+		return start == 0 || end == 0 ? -1 : end - start;
+	}
+
+	@Override
+	public String toString() {
+		return "RequestTimings{queueWait=" + getQueueWait() + ", connect=" + getConnect() + ", requestWrite=" +
+				getRequestWrite() + ", timeToFirstByte=" + getTimeToFirstByte() + ", decode=" + getDecode() +
+				", total=" + getTotal() + ", attempts=" + attempts + '}';
+	}
+}
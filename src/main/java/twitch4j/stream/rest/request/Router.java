@@ -1,13 +1,27 @@
 package twitch4j.stream.rest.request;
 
-import java.time.Duration;
+import io.netty.handler.codec.http.HttpMethod;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.annotation.Nullable;
 import lombok.Getter;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoProcessor;
-import reactor.util.function.Tuples;
+import reactor.util.concurrent.Queues;
+import twitch4j.stream.metrics.Metrics;
+import twitch4j.stream.rest.http.client.ClientException;
 import twitch4j.stream.rest.http.client.SimpleHttpClient;
+import twitch4j.stream.rest.route.Route;
 
 /**
  * Facilitates the routing of {@link TwitchRequest TwitchRequests} to the proper
@@ -17,15 +31,49 @@ public class Router {
 
 	@Getter
 	private final SimpleHttpClient httpClient;
+	@Getter
+	private final RouterOptions options;
 	private final Map<BucketKey, RequestStream<?>> streamMap = new ConcurrentHashMap<>();
+	private final Map<Route<?>, Metrics.Counter> routeCounters = new ConcurrentHashMap<>();
+	private final Map<String, StreamMetrics> streamMetrics = new ConcurrentHashMap<>();
+	private final DirectProcessor<RateLimitSnapshot> rateLimits = DirectProcessor.create();
+	private final FluxSink<RateLimitSnapshot> rateLimitSink = rateLimits.sink();
+	private final RequestStream.RateLimitListener rateLimitListener = new RequestStream.RateLimitListener() {
+
+		@Override
+		public boolean isObserved() {
+			return rateLimits.hasDownstreams();
+		}
+
+		@Override
+		public void onRateLimit(RateLimitSnapshot snapshot) {
+			rateLimitSink.next(snapshot);
+		}
+	};
+	@Nullable
+	private final CircuitBreaker hostBreaker;
+	private final RateLimitPolicy rateLimitPolicy;
+	private final Flux<ExchangeResult<Object>> replayed;
 
 	public Router(SimpleHttpClient httpClient) {
+		this(httpClient, RouterOptions.defaults());
+	}
+
+	public Router(SimpleHttpClient httpClient, RouterOptions options) {
 		this.httpClient = httpClient;
+		this.options = options;
+		this.hostBreaker = options.getCircuitBreaker() == null ? null
+				: new CircuitBreaker(httpClient.getBaseUrl(), options.getCircuitBreaker());
+		this.rateLimitPolicy = options.getRateLimitPolicy() != null ? options.getRateLimitPolicy()
+				: RateLimitPolicy.forBaseUrl(httpClient.getBaseUrl());
+		this.replayed = replay(options.getJournal());
 	}
 
 	/**
 	 * Queues a request for execution in the appropriate {@link RequestStream request stream}
 	 * according to the request's {@link BucketKey bucket}.
+	 * <p>
+	 * Cancelling the returned mono removes the request from its queue, or aborts it if it is already in flight.
 	 *
 	 * @param request The request to queue.
 	 * @param <T>     The request's response type.
@@ -34,21 +82,182 @@ public class Router {
 	public <T> Mono<T> exchange(TwitchRequest<T> request) {
 		return Mono.defer(() -> {
 			RequestStream<T> stream = getStream(request);
-			MonoProcessor<T> callback = MonoProcessor.create();
+			CircuitBreaker openCircuit = stream.openCircuit();
+			if (openCircuit != null) {
+				return Mono.error(new CircuitOpenException(openCircuit));
+			}
 
-			stream.push(Tuples.of(callback, request));
-			return callback;
+			if (options.getMetrics().isEnabled()) {
+				routeCounters.computeIfAbsent(request.getRoute(), route -> options.getMetrics()
+						.counter("stream4j.route.requests", "method", route.getMethod().name(),
+								"route", route.getUriTemplate()))
+						.increment();
+			}
+			RequestJournal journal = options.getJournal();
+			if (journal != null && request.getRoute().getMethod() != HttpMethod.GET) {
+				return journal.append(request).flatMap(id -> acknowledged(push(stream, request), journal, id));
+			}
+			return push(stream, request);
 		});
 	}
 
+	/**
+	 * Return the results of the requests found pending in the {@link RouterOptions.Builder#journal(RequestJournal)
+	 * journal} when this router was created. They are sent right away, and the latest
+	 * {@link Queues#SMALL_BUFFER_SIZE} results are kept for subscribers arriving after them.
+	 *
+	 * @return a {@code Flux} of the result of each replayed request, empty if there is no journal
+	 */
+	public Flux<ExchangeResult<Object>> replayed() {
+		return replayed;
+	}
+
+	/**
+	 * Exchange every given request, with at most {@link Queues#SMALL_BUFFER_SIZE} of them queued or in flight at once,
+	 * and {@link Queues#XS_BUFFER_SIZE} for the same bucket, emitting their results as they complete.
+	 *
+	 * @param requests the requests to exchange
+	 * @param <T>      the response type
+	 * @return a {@code Flux} of the result of each request
+	 * @see #exchangeAll(Publisher, int, int, boolean)
+	 */
+	public <T> Flux<ExchangeResult<T>> exchangeAll(Publisher<TwitchRequest<T>> requests) {
+		return exchangeAll(requests, Queues.SMALL_BUFFER_SIZE, Queues.XS_BUFFER_SIZE, false);
+	}
+
+	/**
+	 * Exchange every given request, pulling them from the publisher as results are requested.
+	 * <p>
+	 * At most {@code concurrency} requests are queued in their {@link RequestStream} or in flight at once, and at most
+	 * {@code bucketConcurrency} of them for the same bucket. Requests waiting behind a rate limit cooldown count towards
+	 * both limits, so a bucket running out of points holds back its own requests without starving the other buckets.
+	 * A request whose bucket is at its limit is set aside while the following requests are sent; once
+	 * {@code concurrency} requests are set aside, pulling stops until their bucket makes progress. When results are
+	 * emitted in order, completed results waiting for an earlier request also count towards {@code concurrency}, so a
+	 * slow request cannot make the results behind it pile up. A failed request produces a failed
+	 * {@link ExchangeResult} and does not cancel the other ones.
+	 *
+	 * @param requests          the requests to exchange
+	 * @param concurrency       the maximum number of requests queued or in flight at once
+	 * @param bucketConcurrency the maximum number of requests of the same bucket queued or in flight at once
+	 * @param ordered           {@code true} to emit results in the order of the requests, {@code false} to emit them
+	 *                          as they complete
+	 * @param <T>               the response type
+	 * @return a {@code Flux} of the result of each request
+	 */
+	public <T> Flux<ExchangeResult<T>> exchangeAll(Publisher<TwitchRequest<T>> requests, int concurrency,
+			int bucketConcurrency, boolean ordered) {
+		if (concurrency <= 0) {
+			throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+		}
+		if (bucketConcurrency <= 0) {
+			throw new IllegalArgumentException("Bucket concurrency must be positive: " + bucketConcurrency);
+		}
+		Function<TwitchRequest<T>, Mono<ExchangeResult<T>>> exchange = request -> exchange(request)
+				.map(response -> new ExchangeResult<>(request, response, null))
+				.defaultIfEmpty(new ExchangeResult<>(request, null, null))
+				.onErrorResume(t -> Mono.just(new ExchangeResult<>(request, null, t)));
+		return BulkExchange.create(requests, Router::bucketOf, exchange, concurrency,
+				Math.min(bucketConcurrency, concurrency), ordered);
+	}
+
+	/**
+	 * Return the circuit breakers of the host and of every bucket used so far.
+	 *
+	 * @return the circuit breakers, empty if they are disabled
+	 * @see RouterOptions.Builder#circuitBreaker(CircuitBreakerOptions)
+	 */
+	public List<CircuitBreaker> getCircuitBreakers() {
+		List<CircuitBreaker> breakers = new ArrayList<>();
+		if (hostBreaker != null) {
+			breakers.add(hostBreaker);
+		}
+		streamMap.values().stream()
+				.map(RequestStream::getBucketBreaker)
+				.filter(Objects::nonNull)
+				.forEach(breakers::add);
+		return breakers;
+	}
+
+	/**
+	 * Observe the rate limit state reported by each response carrying {@code Ratelimit-*} headers, keyed by bucket and
+	 * token. This allows callers to slow down before requests start queueing behind a cooldown.
+	 * <p>
+	 * Only responses received while subscribed are emitted. A subscriber falling more than
+	 * {@link Queues#SMALL_BUFFER_SIZE} snapshots behind loses the oldest ones.
+	 *
+	 * @return a {@code Flux} of rate limit snapshots
+	 */
+	public Flux<RateLimitSnapshot> rateLimits() {
+		return rateLimits.onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, snapshot -> {},
+				BufferOverflowStrategy.DROP_OLDEST);
+	}
+
+	private <T> Mono<T> push(RequestStream<T> stream, TwitchRequest<T> request) {
+		MonoProcessor<T> callback = MonoProcessor.create();
+		Disposable queued = stream.push(callback, request);
+		return callback.doOnCancel(queued::dispose);
+	}
+
+	/**
+	 * Exchange a journaled request, and acknowledge it once it succeeds or fails for good. A cancelled request, or one
+	 * failing in a way that may not happen again, stays pending and is sent again by the next router using the
+	 * journal.
+	 */
+	private static <T> Mono<T> acknowledged(Mono<T> exchange, RequestJournal journal, long id) {
+		return exchange.doOnSuccess(response -> journal.acknowledge(id))
+				.doOnError(error -> {
+					if (isDefinitive(error)) {
+						journal.acknowledge(id);
+					}
+				});
+	}
+
+	/**
+	 * Whether a request failing with the given error would fail the same way if sent again: a client error other than
+	 * 429, or a deadline that has passed.
+	 */
+	private static boolean isDefinitive(Throwable error) {
+		if (error instanceof DeadlineExceededException) {
+			return true;
+		}
+		if (error instanceof ClientException) {
+			int status = ((ClientException) error).getStatus().code();
+			return status >= 400 && status < 500 && status != 429;
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Flux<ExchangeResult<Object>> replay(@Nullable RequestJournal journal) {
+		if (journal == null || journal.getRecovered().isEmpty()) {
+			return Flux.empty();
+		}
+		return Flux.fromIterable(journal.getRecovered().entrySet())
+				.flatMap(recovered -> {
+					TwitchRequest<Object> request = (TwitchRequest<Object>) recovered.getValue();
+					return acknowledged(push(getStream(request), request), journal, recovered.getKey())
+							.map(response -> new ExchangeResult<>(request, response, null))
+							.defaultIfEmpty(new ExchangeResult<>(request, null, null))
+							.onErrorResume(t -> Mono.just(new ExchangeResult<>(request, null, t)));
+				})
+				.replay(Queues.SMALL_BUFFER_SIZE)
+				.autoConnect(0);
+	}
+
 	@SuppressWarnings("unchecked")
 	private <T> RequestStream<T> getStream(TwitchRequest<T> request) {
-		return (RequestStream<T>)
-				streamMap.computeIfAbsent(BucketKey.of(request.getRoute().getUriTemplate(), request.getCompleteUri()),
-						k -> {
-							RequestStream<T> stream = new RequestStream<>(httpClient, Duration.ZERO);
-							stream.start();
-							return stream;
-						});
+		return (RequestStream<T>) streamMap.computeIfAbsent(bucketOf(request), this::newStream);
+	}
+
+	private static BucketKey bucketOf(TwitchRequest<?> request) {
+		return BucketKey.of(request.getRoute().getUriTemplate(), request.getCompleteUri());
+	}
+
+	private RequestStream<?> newStream(BucketKey bucket) {
+		StreamMetrics metrics = streamMetrics.computeIfAbsent(bucket.getUriTemplate(),
+				template -> new StreamMetrics(options.getMetrics(), template));
+		return new RequestStream<>(httpClient, bucket, options, metrics, rateLimitPolicy, hostBreaker,
+				rateLimitListener);
 	}
 }
@@ -0,0 +1,162 @@
+package twitch4j.stream.rest.request;
+
+import javax.annotation.Nullable;
+import twitch4j.stream.metrics.Metrics;
+
+/**
+ * Configuration of a {@link twitch4j.stream.rest.request.Router}.
+ *
+ * @since 1.0
+ */
+public class RouterOptions {
+
+	private final Metrics metrics;
+	@Nullable
+	private final CircuitBreakerOptions circuitBreaker;
+	@Nullable
+	private final HedgingOptions hedging;
+	@Nullable
+	private final RequestJournal journal;
+	@Nullable
+	private final RateLimitPolicy rateLimitPolicy;
+
+	private RouterOptions(Builder builder) {
+		this.metrics = builder.metrics;
+		this.circuitBreaker = builder.circuitBreaker;
+		this.hedging = builder.hedging;
+		this.journal = builder.journal;
+		this.rateLimitPolicy = builder.rateLimitPolicy;
+	}
+
+	/**
+	 * A {@link twitch4j.stream.rest.request.RouterOptions} builder.
+	 *
+	 * @return a builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * The default options.
+	 *
+	 * @return router options with every setting at its default
+	 */
+	public static RouterOptions defaults() {
+		return builder().build();
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Nullable
+	public CircuitBreakerOptions getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	@Nullable
+	public HedgingOptions getHedging() {
+		return hedging;
+	}
+
+	@Nullable
+	public RequestJournal getJournal() {
+		return journal;
+	}
+
+	@Nullable
+	public RateLimitPolicy getRateLimitPolicy() {
+		return rateLimitPolicy;
+	}
+
+	/**
+	 * A mutable builder for a {@link twitch4j.stream.rest.request.RouterOptions}.
+	 */
+	public static class Builder {
+
+		private Metrics metrics = Metrics.noop();
+		@Nullable
+		private CircuitBreakerOptions circuitBreaker;
+		@Nullable
+		private HedgingOptions hedging;
+		@Nullable
+		private RequestJournal journal;
+		@Nullable
+		private RateLimitPolicy rateLimitPolicy;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the registry receiving queue, latency and rate limit metrics for each route and bucket.
+		 *
+		 * @param metrics the metrics registry, {@link Metrics#noop()} by default
+		 * @return this builder
+		 */
+		public Builder metrics(Metrics metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+
+		/**
+		 * Guard the host and each bucket with a {@link CircuitBreaker}, so requests fail immediately while Twitch is
+		 * failing or too slow, instead of waiting for their own failure.
+		 *
+		 * @param circuitBreaker the circuit breaker thresholds, or {@code null} to disable circuit breakers, the
+		 *                       default
+		 * @return this builder
+		 */
+		public Builder circuitBreaker(@Nullable CircuitBreakerOptions circuitBreaker) {
+			this.circuitBreaker = circuitBreaker;
+			return this;
+		}
+
+		/**
+		 * Hedge GET requests, the only idempotent ones among the Twitch routes: a slow request is raced against a
+		 * second identical one, within a budget.
+		 *
+		 * @param hedging the hedging settings, or {@code null} to disable hedging, the default
+		 * @return this builder
+		 */
+		public Builder hedging(@Nullable HedgingOptions hedging) {
+			this.hedging = hedging;
+			return this;
+		}
+
+		/**
+		 * Record every request other than GET in the given journal until it succeeds or fails for good, so requests
+		 * still queued, in flight or failed with a transient error when the process stops are sent again by the next
+		 * router using the same journal.
+		 *
+		 * @param journal the journal of pending requests, or {@code null} to keep them in memory only, the default
+		 * @return this builder
+		 */
+		public Builder journal(@Nullable RequestJournal journal) {
+			this.journal = journal;
+			return this;
+		}
+
+		/**
+		 * Pace the requests of each bucket with the given policy instead of the one matching the base URL of the
+		 * client.
+		 *
+		 * @param rateLimitPolicy the rate limit policy, or {@code null} for
+		 *                        {@link RateLimitPolicy#forBaseUrl(String)}, the default
+		 * @return this builder
+		 */
+		public Builder rateLimitPolicy(@Nullable RateLimitPolicy rateLimitPolicy) {
+			this.rateLimitPolicy = rateLimitPolicy;
+			return this;
+		}
+
+		/**
+		 * Build the {@link twitch4j.stream.rest.request.RouterOptions} instance.
+		 *
+		 * @return router options
+		 */
+		public RouterOptions build() {
+			return new RouterOptions(this);
+		}
+	}
+}
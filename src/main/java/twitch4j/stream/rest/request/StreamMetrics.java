@@ -0,0 +1,83 @@
+package twitch4j.stream.rest.request;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import twitch4j.stream.metrics.Metrics;
+
+/**
+ * The instruments of the {@link twitch4j.stream.rest.request.RequestStream RequestStreams} of a route, resolved once
+ * when the first stream of the route is created so that recording does not involve any registry lookup. Streams are
+ * tagged by route template only, since their buckets include the major parameter and are unbounded. The queue depth
+ * gauge sums up every bucket of the route, while the remaining points gauge reports the last response of any of them.
+ */
+class StreamMetrics {
+
+	private final boolean enabled;
+	final Metrics.Histogram queueWait;
+	final Metrics.Histogram latency;
+	private final Metrics.Histogram connect;
+	private final Metrics.Histogram timeToFirstByte;
+	private final Metrics.Histogram decode;
+	final Metrics.Counter rateLimited;
+	final Metrics.Counter retries;
+	final Metrics.Counter errors;
+	final Metrics.Counter expired;
+	final Metrics.Counter cancelled;
+	final Metrics.Counter aborted;
+	final Metrics.Counter rejected;
+	final Metrics.Counter hedges;
+	final AtomicInteger queueDepth = new AtomicInteger();
+	final AtomicLong remaining = new AtomicLong(-1);
+
+	StreamMetrics(Metrics metrics, String uriTemplate) {
+		String[] tags = {"route", uriTemplate};
+		this.enabled = metrics.isEnabled();
+		this.queueWait = metrics.histogram("stream4j.request.queue.wait", tags);
+		this.latency = metrics.histogram("stream4j.request.latency", tags);
+		this.connect = metrics.histogram("stream4j.request.connect", tags);
+		this.timeToFirstByte = metrics.histogram("stream4j.request.ttfb", tags);
+		this.decode = metrics.histogram("stream4j.request.decode", tags);
+		this.rateLimited = metrics.counter("stream4j.request.ratelimited", tags);
+		this.retries = metrics.counter("stream4j.request.retries", tags);
+		this.errors = metrics.counter("stream4j.request.errors", tags);
+		this.expired = metrics.counter("stream4j.request.expired", tags);
+		this.cancelled = metrics.counter("stream4j.request.cancelled", tags);
+		this.aborted = metrics.counter("stream4j.request.aborted", tags);
+		this.rejected = metrics.counter("stream4j.request.rejected", tags);
+		this.hedges = metrics.counter("stream4j.request.hedges", tags);
+		metrics.gauge("stream4j.request.queue.depth", queueDepth::get, tags);
+		metrics.gauge("stream4j.ratelimit.remaining", remaining::get, tags);
+	}
+
+	/**
+	 * Read the clock only if metrics are recorded.
+	 *
+	 * @return the current {@link System#nanoTime()}, or 0 if metrics are disabled
+	 */
+	long now() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	void recordSince(Metrics.Histogram histogram, long start) {
+		if (enabled) {
+			histogram.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Record the phases of an exchange, skipping the ones that did not happen, like the decoding of a failed request.
+	 */
+	void recordPhases(RequestTimings timings) {
+		if (enabled) {
+			recordIfPresent(connect, timings.connectNanos());
+			recordIfPresent(timeToFirstByte, timings.timeToFirstByteNanos());
+			recordIfPresent(decode, timings.decodeNanos());
+		}
+	}
+
+	private static void recordIfPresent(Metrics.Histogram histogram, long nanos) {
+		if (nanos >= 0) {
+			histogram.record(nanos);
+		}
+	}
+}
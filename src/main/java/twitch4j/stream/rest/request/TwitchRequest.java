@@ -2,8 +2,11 @@ package twitch4j.stream.rest.request;
 
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import javax.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -33,11 +36,39 @@ public class TwitchRequest<T> {
 	@Nullable
 	private Multimap<String, String> headers;
 
+	/**
+	 * Return the instant after which this request is no longer useful to its caller. A request still queued at its
+	 * deadline is dropped without being sent, and the time left when it is sent bounds its HTTP exchange.
+	 *
+	 * @return the deadline, or {@code null} if the request waits and runs as long as needed
+	 */
+	@Nullable
+	private Instant deadline;
+
+	/**
+	 * Return the time spent in each phase of the latest exchange of this request.
+	 *
+	 * @return the timings, updated as the exchange progresses
+	 */
+	@Setter(AccessLevel.NONE)
+	private volatile RequestTimings timings = new RequestTimings();
+
 	public TwitchRequest(Route<T> route, String completeUri) {
 		this.route = route;
 		this.completeUri = completeUri;
 	}
 
+	/**
+	 * Start the timings of a new exchange of this request, leaving the timings of its previous exchanges untouched.
+	 *
+	 * @return the timings of the new exchange
+	 */
+	RequestTimings newTimings() {
+		RequestTimings timings = new RequestTimings();
+		this.timings = timings;
+		return timings;
+	}
+
 	Route<T> getRoute() {
 		return route;
 	}
@@ -113,6 +144,18 @@ public class TwitchRequest<T> {
 		return this;
 	}
 
+	/**
+	 * Set the deadline of this request to the given duration from now.
+	 *
+	 * @param timeout the time the request may spend queued and in flight
+	 * @return this request
+	 * @see #deadline()
+	 */
+	public TwitchRequest<T> timeout(Duration timeout) {
+		this.deadline = Instant.now().plus(timeout);
+		return this;
+	}
+
 	/**
 	 * Exchange this request through the given {@link Router}.
 	 *
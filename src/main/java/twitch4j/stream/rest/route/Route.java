@@ -1,12 +1,19 @@
 package twitch4j.stream.rest.route;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import io.netty.handler.codec.http.HttpMethod;
+import java.lang.reflect.Type;
 import java.util.Objects;
 import twitch4j.stream.rest.request.TwitchRequest;
 import twitch4j.stream.util.RouteUtils;
 
 /**
  * Provides a mapping between a Twitch API endpoint and its response type.
+ * <p>
+ * The response type may be generic, such as a {@code List<User>}, when the route is created from a
+ * {@link TypeReference}. The reader strategies receive the full type and resolve it once per route type.
  *
  * @param <T> the response type
  * @since 1.0
@@ -17,41 +24,93 @@ public class Route<T> {
 	private final HttpMethod method;
 	private final String uriTemplate;
 	private final Class<T> responseType;
+	private final Type genericResponseType;
 
-	private Route(HttpMethod method, String uriTemplate, Class<T> responseType) {
+	@SuppressWarnings("unchecked")
+	private Route(HttpMethod method, String uriTemplate, Type responseType) {
 		this.method = method;
 		this.uriTemplate = uriTemplate;
-		this.responseType = responseType;
+		this.responseType = (Class<T>) TypeFactory.rawClass(responseType);
+		// a JavaType without type arguments stands for its class, so the route equals the one created from the class
+		this.genericResponseType = responseType instanceof JavaType
+				&& ((JavaType) responseType).containedTypeCount() == 0 ? this.responseType : responseType;
+	}
+
+	/**
+	 * Create a route of any method, whose response type is only known at runtime.
+	 *
+	 * @param method       the HTTP method
+	 * @param uri          the URI template
+	 * @param responseType the response type, possibly generic
+	 * @param <T>          the response type, which must match the given one
+	 * @return a route
+	 */
+	public static <T> Route<T> of(HttpMethod method, String uri, JavaType responseType) {
+		return new Route<>(method, uri, responseType);
 	}
 
 	public static <T> Route<T> get(String uri, Class<T> responseType) {
 		return new Route<>(HttpMethod.GET, uri, responseType);
 	}
 
+	public static <T> Route<T> get(String uri, TypeReference<T> responseType) {
+		return new Route<>(HttpMethod.GET, uri, responseType.getType());
+	}
+
 	public static <T> Route<T> post(String uri, Class<T> responseType) {
 		return new Route<>(HttpMethod.POST, uri, responseType);
 	}
 
+	public static <T> Route<T> post(String uri, TypeReference<T> responseType) {
+		return new Route<>(HttpMethod.POST, uri, responseType.getType());
+	}
+
 	public static <T> Route<T> put(String uri, Class<T> responseType) {
 		return new Route<>(HttpMethod.PUT, uri, responseType);
 	}
 
+	public static <T> Route<T> put(String uri, TypeReference<T> responseType) {
+		return new Route<>(HttpMethod.PUT, uri, responseType.getType());
+	}
+
 	public static <T> Route<T> patch(String uri, Class<T> responseType) {
 		return new Route<>(HttpMethod.PATCH, uri, responseType);
 	}
 
+	public static <T> Route<T> patch(String uri, TypeReference<T> responseType) {
+		return new Route<>(HttpMethod.PATCH, uri, responseType.getType());
+	}
+
 	public static <T> Route<T> delete(String uri, Class<T> responseType) {
 		return new Route<>(HttpMethod.DELETE, uri, responseType);
 	}
 
+	public static <T> Route<T> delete(String uri, TypeReference<T> responseType) {
+		return new Route<>(HttpMethod.DELETE, uri, responseType.getType());
+	}
+
 	public HttpMethod getMethod() {
 		return method;
 	}
 
+	/**
+	 * Return the raw class of the response type.
+	 *
+	 * @return the response class, without its type arguments
+	 */
 	public Class<T> getResponseType() {
 		return responseType;
 	}
 
+	/**
+	 * Return the full response type, with its type arguments if it is generic.
+	 *
+	 * @return the response type, the same as {@link #getResponseType()} for routes created from a class
+	 */
+	public Type getGenericResponseType() {
+		return genericResponseType;
+	}
+
 	/**
 	 * Prepare a request, expanding this route template URI with the given parameters.
 	 *
@@ -69,7 +128,7 @@ public class Route<T> {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(method, responseType, uriTemplate);
+		return Objects.hash(method, genericResponseType, uriTemplate);
 	}
 
 	@Override
@@ -84,7 +143,7 @@ public class Route<T> {
 
 		Route other = (Route) obj;
 
-		return other.method.equals(method) && other.responseType.equals(responseType)
+		return other.method.equals(method) && other.genericResponseType.equals(genericResponseType)
 				&& other.uriTemplate.equals(uriTemplate);
 	}
 }
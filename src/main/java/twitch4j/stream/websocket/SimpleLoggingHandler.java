@@ -6,6 +6,10 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 
+/**
+ * A {@link LoggingHandler} logging the size of messages instead of dumping their contents. Messages are only
+ * formatted when the level is enabled, as checked by {@link LoggingHandler} before calling {@link #format}.
+ */
 public class SimpleLoggingHandler extends LoggingHandler {
 
     public SimpleLoggingHandler(Class<?> clazz, LogLevel level) {
@@ -15,50 +19,20 @@ public class SimpleLoggingHandler extends LoggingHandler {
     @Override
     protected String format(ChannelHandlerContext ctx, String eventName, Object arg) {
         if (arg instanceof ByteBuf) {
-            return formatByteBuf(ctx, eventName, (ByteBuf) arg);
+            return prefix(ctx, eventName).append(": ")
+                    .append(((ByteBuf) arg).readableBytes()).append('B')
+                    .toString();
         } else if (arg instanceof ByteBufHolder) {
-            return formatByteBufHolder(ctx, eventName, (ByteBufHolder) arg);
+            return prefix(ctx, eventName).append(": ")
+                    .append(arg.getClass().getSimpleName()).append(", ")
+                    .append(((ByteBufHolder) arg).content().readableBytes()).append('B')
+                    .toString();
         } else {
-            return formatSimple(ctx, eventName, arg);
+            return prefix(ctx, eventName).append(": ").append(arg).toString();
         }
     }
 
-    /**
-     * Generates the default log message of the specified event whose argument is a {@link io.netty.buffer.ByteBuf}.
-     */
-    private static String formatByteBuf(ChannelHandlerContext ctx, String eventName, ByteBuf msg) {
-        String chStr = ctx.channel().toString();
-        int length = msg.readableBytes();
-        if (length == 0) {
-            return chStr + ' ' + eventName + ": 0B";
-        } else {
-            return chStr + ' ' + eventName + ": " + length + 'B';
-        }
-    }
-
-    /**
-     * Generates the default log message of the specified event whose argument is a
-     * {@link io.netty.buffer.ByteBufHolder}.
-     */
-    private static String formatByteBufHolder(ChannelHandlerContext ctx, String eventName, ByteBufHolder msg) {
-        String chStr = ctx.channel().toString();
-        String msgStr = msg.toString();
-        ByteBuf content = msg.content();
-        int length = content.readableBytes();
-        if (length == 0) {
-            return chStr + ' ' + eventName + ", " + msgStr + ", 0B";
-        } else {
-            return chStr + ' ' + eventName + ": " +
-                    msgStr + ", " + length + 'B';
-        }
-    }
-
-    /**
-     * Generates the default log message of the specified event whose argument is an arbitrary object.
-     */
-    private static String formatSimple(ChannelHandlerContext ctx, String eventName, Object msg) {
-        String chStr = ctx.channel().toString();
-        String msgStr = String.valueOf(msg);
-        return chStr + ' ' + eventName + ": " + msgStr;
+    private static StringBuilder prefix(ChannelHandlerContext ctx, String eventName) {
+        return new StringBuilder(96).append(ctx.channel()).append(' ').append(eventName);
     }
 }
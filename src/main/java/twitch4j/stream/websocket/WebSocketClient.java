@@ -3,6 +3,9 @@ package twitch4j.stream.websocket;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClient;
+import twitch4j.stream.resources.ClientResources;
+
+import javax.annotation.Nullable;
 
 /**
  * WebSocket client over Reactor Netty.
@@ -10,12 +13,23 @@ import reactor.ipc.netty.http.client.HttpClient;
 @RequiredArgsConstructor
 public class WebSocketClient {
 
+    private static final String COMPRESSION_HANDLER = "stream4j.wsCompressionHandler";
+
     private final HttpClient httpClient;
 
     public WebSocketClient() {
         this(HttpClient.create());
     }
 
+    /**
+     * A {@link WebSocketClient} builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     /**
      * Execute a handshake request to the given url and handle the resulting WebSocket session with the given handler.
      *
@@ -31,4 +45,59 @@ public class WebSocketClient {
                                 handler.handle(new WebSocketSession(in, out))));
     }
 
+    /**
+     * A mutable builder for a {@link WebSocketClient}.
+     */
+    public static class Builder {
+
+        @Nullable
+        private WebSocketCompression compression;
+        @Nullable
+        private ClientResources resources;
+
+        private Builder() {
+        }
+
+        /**
+         * Run the client on the given event loops instead of the global Reactor Netty ones.
+         *
+         * @param resources the event loop configuration, possibly shared with other clients
+         * @return this builder
+         */
+        public Builder resources(@Nullable ClientResources resources) {
+            this.resources = resources;
+            return this;
+        }
+
+        /**
+         * Offer the permessage-deflate extension on every handshake. Messages are compressed only if the server
+         * accepts it.
+         *
+         * @param compression the compression settings, or {@code null} to disable compression
+         * @return this builder
+         */
+        public Builder compression(@Nullable WebSocketCompression compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Build the {@link WebSocketClient} instance.
+         *
+         * @return a client
+         */
+        public WebSocketClient build() {
+            WebSocketCompression compression = this.compression;
+            ClientResources resources = this.resources;
+            return new WebSocketClient(HttpClient.create(options -> {
+                if (resources != null) {
+                    resources.configure(options);
+                }
+                if (compression != null) {
+                    options.afterNettyContextInit(context ->
+                            context.addHandlerFirst(COMPRESSION_HANDLER, compression.newHandler()));
+                }
+            }));
+        }
+    }
 }
@@ -0,0 +1,144 @@
+package twitch4j.stream.websocket;
+
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateClientExtensionHandshaker;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Settings of the <a href="https://tools.ietf.org/html/rfc7692">permessage-deflate</a> extension offered by a
+ * {@link WebSocketClient} during the handshake. When the server accepts the offer, inbound and outbound messages are
+ * transparently compressed.
+ */
+@Getter
+@ToString
+public class WebSocketCompression {
+
+    private final int compressionLevel;
+    private final boolean clientNoContextTakeover;
+    private final boolean serverNoContextTakeover;
+    private final boolean clientMaxWindowBits;
+    private final int serverMaxWindowBits;
+
+    private WebSocketCompression(Builder builder) {
+        this.compressionLevel = builder.compressionLevel;
+        this.clientNoContextTakeover = builder.clientNoContextTakeover;
+        this.serverNoContextTakeover = builder.serverNoContextTakeover;
+        this.clientMaxWindowBits = builder.clientMaxWindowBits;
+        this.serverMaxWindowBits = builder.serverMaxWindowBits;
+    }
+
+    /**
+     * A {@link WebSocketCompression} builder.
+     *
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compression with default settings: level 6, context takeover in both directions and 15 window bits.
+     *
+     * @return the default compression settings
+     */
+    public static WebSocketCompression defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Create the handler negotiating the extension. A new handler is needed for each connection.
+     *
+     * @return a handler to add to the pipeline before the handshake
+     */
+    WebSocketClientExtensionHandler newHandler() {
+        return new WebSocketClientExtensionHandler(new PerMessageDeflateClientExtensionHandshaker(compressionLevel,
+                clientMaxWindowBits, serverMaxWindowBits, clientNoContextTakeover, serverNoContextTakeover));
+    }
+
+    /**
+     * A mutable builder for a {@link WebSocketCompression}.
+     */
+    public static class Builder {
+
+        private int compressionLevel = 6;
+        private boolean clientNoContextTakeover = false;
+        private boolean serverNoContextTakeover = false;
+        private boolean clientMaxWindowBits = false;
+        private int serverMaxWindowBits = 15;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the deflate level used for outbound messages.
+         *
+         * @param compressionLevel a level between 0 (no compression) and 9 (best compression)
+         * @return this builder
+         */
+        public Builder compressionLevel(int compressionLevel) {
+            if (compressionLevel < 0 || compressionLevel > 9) {
+                throw new IllegalArgumentException("Compression level must be between 0 and 9: " + compressionLevel);
+            }
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        /**
+         * Allow the server to request that the client resets its compression context after each message. Doing so
+         * saves memory on the client at the cost of compression ratio.
+         *
+         * @param clientNoContextTakeover whether {@code client_no_context_takeover} is accepted
+         * @return this builder
+         */
+        public Builder clientNoContextTakeover(boolean clientNoContextTakeover) {
+            this.clientNoContextTakeover = clientNoContextTakeover;
+            return this;
+        }
+
+        /**
+         * Ask the server to reset its compression context after each message.
+         *
+         * @param serverNoContextTakeover whether {@code server_no_context_takeover} is requested
+         * @return this builder
+         */
+        public Builder serverNoContextTakeover(boolean serverNoContextTakeover) {
+            this.serverNoContextTakeover = serverNoContextTakeover;
+            return this;
+        }
+
+        /**
+         * Allow the server to choose the window size of the client compressor.
+         *
+         * @param clientMaxWindowBits whether {@code client_max_window_bits} is offered
+         * @return this builder
+         */
+        public Builder clientMaxWindowBits(boolean clientMaxWindowBits) {
+            this.clientMaxWindowBits = clientMaxWindowBits;
+            return this;
+        }
+
+        /**
+         * Ask the server to use a smaller window for its compressor, reducing memory on both ends.
+         *
+         * @param serverMaxWindowBits the base-2 logarithm of the window size, between 8 and 15
+         * @return this builder
+         */
+        public Builder serverMaxWindowBits(int serverMaxWindowBits) {
+            if (serverMaxWindowBits < 8 || serverMaxWindowBits > 15) {
+                throw new IllegalArgumentException("Window bits must be between 8 and 15: " + serverMaxWindowBits);
+            }
+            this.serverMaxWindowBits = serverMaxWindowBits;
+            return this;
+        }
+
+        /**
+         * Build the {@link WebSocketCompression} instance.
+         *
+         * @return the compression settings
+         */
+        public WebSocketCompression build() {
+            return new WebSocketCompression(this);
+        }
+    }
+}
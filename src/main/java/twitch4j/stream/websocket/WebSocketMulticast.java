@@ -0,0 +1,421 @@
+package twitch4j.stream.websocket;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.util.concurrent.Queues;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Fans out a single inbound stream of {@link WebSocketMessage WebSocketMessages} to any number of subscribers.
+ * <p>
+ * The source is subscribed to once, when the first subscriber arrives, and cancelled when the last one leaves, like
+ * {@code publish().refCount()}. Each subscriber owns a bounded buffer and an {@link Overflow} policy deciding what
+ * happens when it falls behind. With {@link Overflow#BACKPRESSURE} the source is only requested as many messages as
+ * the fullest such buffer can take, so a slow subscriber paces the connection. With the other policies a slow
+ * subscriber only affects itself and never stalls the Netty event loop or the other subscribers. Demand on the source
+ * is always bounded, at most {@link Queues#SMALL_BUFFER_SIZE} messages ahead. Payloads are retained while they wait in
+ * a buffer and released once delivered or dropped.
+ * <p>
+ * How far each subscriber lags behind can be observed through {@link #getLag()}.
+ */
+public class WebSocketMulticast {
+
+    private static final int MAX_DEMAND = Queues.SMALL_BUFFER_SIZE;
+
+    private final Flux<WebSocketMessage> source;
+    private final AtomicInteger ids = new AtomicInteger();
+    private final List<Inner> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The current subscription to the source and the messages requested from it but not received yet, guarded by
+     * {@code this}.
+     */
+    @Nullable
+    private Upstream upstream;
+    private long outstanding;
+
+    private volatile boolean done;
+    @Nullable
+    private volatile Throwable error;
+
+    public WebSocketMulticast(Flux<WebSocketMessage> source) {
+        this.source = source;
+    }
+
+    /**
+     * Subscribe to the inbound messages with a dedicated buffer.
+     *
+     * @param overflow the policy applied when the buffer is full
+     * @param capacity the maximum number of messages buffered for this subscriber
+     * @return a {@code Flux<WebSocketMessage>} inbound from the shared source
+     */
+    public Flux<WebSocketMessage> subscribe(Overflow overflow, int capacity) {
+        return subscribe("subscriber-" + ids.incrementAndGet(), overflow, capacity);
+    }
+
+    /**
+     * Subscribe to the inbound messages with a dedicated buffer.
+     *
+     * @param name     the name identifying this subscriber in {@link #getLag()}
+     * @param overflow the policy applied when the buffer is full
+     * @param capacity the maximum number of messages buffered for this subscriber
+     * @return a {@code Flux<WebSocketMessage>} inbound from the shared source
+     */
+    public Flux<WebSocketMessage> subscribe(String name, Overflow overflow, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        return Flux.create(sink -> {
+            Inner inner = new Inner(name, sink, overflow, capacity);
+            sink.onRequest(n -> inner.drain());
+            sink.onDispose(() -> {
+                disconnect(inner);
+                inner.clear();
+            });
+            connect(inner);
+        });
+    }
+
+    /**
+     * Return a snapshot of how far behind each current subscriber is.
+     *
+     * @return the lag of each subscriber
+     */
+    public List<SubscriberLag> getLag() {
+        return subscribers.stream().map(Inner::lag).collect(Collectors.toList());
+    }
+
+    private void connect(Inner inner) {
+        Upstream connection = null;
+        synchronized (this) {
+            subscribers.add(inner);
+            if (!done && upstream == null) {
+                connection = new Upstream();
+                upstream = connection;
+                outstanding = 0;
+            }
+        }
+        if (done) {
+            inner.terminate(error);
+        } else if (connection != null) {
+            source.subscribe(connection);
+        } else {
+            replenish();
+        }
+    }
+
+    private void disconnect(Inner inner) {
+        Upstream connection = null;
+        synchronized (this) {
+            subscribers.remove(inner);
+            if (subscribers.isEmpty()) {
+                connection = upstream;
+                upstream = null;
+            }
+        }
+        if (connection != null) {
+            connection.dispose();
+        } else {
+            replenish();
+        }
+    }
+
+    /**
+     * Request from the source as many messages as every {@link Overflow#BACKPRESSURE} subscriber has room for, bounded
+     * by {@link #MAX_DEMAND}. Requests are batched, so the source is not asked for one message at a time.
+     */
+    private void replenish() {
+        Upstream connection;
+        long n;
+        synchronized (this) {
+            connection = upstream;
+            if (connection == null || !connection.subscribed) {
+                return;
+            }
+            long credit = MAX_DEMAND;
+            for (Inner inner : subscribers) {
+                if (inner.overflow == Overflow.BACKPRESSURE) {
+                    credit = Math.min(credit, inner.capacity - inner.size);
+                }
+            }
+            n = credit - outstanding;
+            if (n <= 0 || outstanding > 0 && n < Math.max(1, credit / 4)) {
+                return;
+            }
+            outstanding += n;
+        }
+        connection.request(n);
+    }
+
+    private void dispatch(Upstream connection, WebSocketMessage message) {
+        synchronized (this) {
+            if (connection != upstream) {
+                return;
+            }
+            if (outstanding > 0) {
+                outstanding--;
+            }
+        }
+        for (Inner inner : subscribers) {
+            inner.offer(message);
+        }
+        replenish();
+    }
+
+    private void fail(Throwable t) {
+        error = t;
+        done = true;
+        subscribers.forEach(inner -> inner.terminate(t));
+    }
+
+    private void complete() {
+        done = true;
+        subscribers.forEach(inner -> inner.terminate(null));
+    }
+
+    /**
+     * What to do with an inbound message when the buffer of a subscriber is full.
+     */
+    public enum Overflow {
+        /**
+         * Stop requesting from the connection while the buffer is full, so the slowest subscriber paces every
+         * subscriber and the connection itself. The buffer may briefly hold more than its capacity when the subscriber
+         * joins while messages were already requested.
+         */
+        BACKPRESSURE,
+        /**
+         * Discard the oldest buffered message to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the new message.
+         */
+        DROP_LATEST,
+        /**
+         * Terminate the subscriber with an overflow error.
+         */
+        ERROR
+    }
+
+    /**
+     * A snapshot of the backlog of a single subscriber.
+     */
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class SubscriberLag {
+
+        private final String name;
+        private final Overflow overflow;
+        private final int capacity;
+        /**
+         * The number of messages currently waiting in the buffer.
+         */
+        private final int queued;
+        /**
+         * The highest number of messages that waited in the buffer at once.
+         */
+        private final int maxQueued;
+        private final long delivered;
+        private final long dropped;
+        /**
+         * How long the oldest buffered message has been waiting.
+         */
+        private final Duration oldestQueuedAge;
+    }
+
+    private static class Entry {
+
+        private final WebSocketMessage message;
+        private final long enqueuedAt;
+
+        private Entry(WebSocketMessage message) {
+            this.message = message;
+            this.enqueuedAt = System.nanoTime();
+        }
+
+        private void release() {
+            message.getPayload().release();
+        }
+    }
+
+    /**
+     * The subscription to the source, replaced when the source is subscribed to again after the last subscriber left.
+     */
+    private class Upstream extends BaseSubscriber<WebSocketMessage> {
+
+        private volatile boolean subscribed;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscribed = true;
+            replenish();
+        }
+
+        @Override
+        protected void hookOnNext(WebSocketMessage message) {
+            dispatch(this, message);
+        }
+
+        @Override
+        protected void hookOnError(Throwable t) {
+            fail(t);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            complete();
+        }
+    }
+
+    private class Inner {
+
+        private final String name;
+        private final FluxSink<WebSocketMessage> sink;
+        private final Overflow overflow;
+        private final int capacity;
+        private final Queue<Entry> queue;
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean terminated;
+        @Nullable
+        private volatile Throwable failure;
+        /**
+         * The size of the queue, readable without locking this subscriber.
+         */
+        private volatile int size;
+        private volatile int maxQueued;
+        private volatile long delivered;
+        private volatile long dropped;
+
+        private Inner(String name, FluxSink<WebSocketMessage> sink, Overflow overflow, int capacity) {
+            this.name = name;
+            this.sink = sink;
+            this.overflow = overflow;
+            this.capacity = capacity;
+            this.queue = new ArrayDeque<>(Math.min(capacity, 256));
+        }
+
+        private void offer(WebSocketMessage message) {
+            if (terminated) {
+                return;
+            }
+            synchronized (this) {
+                if (queue.size() >= capacity) {
+                    switch (overflow) {
+                        case BACKPRESSURE:
+                            break;
+                        case DROP_OLDEST:
+                            queue.remove().release();
+                            dropped++;
+                            break;
+                        case DROP_LATEST:
+                            dropped++;
+                            return;
+                        case ERROR:
+                            failure = Exceptions.failWithOverflow("Subscriber " + name + " buffer of " + capacity +
+                                    " messages is full");
+                            terminated = true;
+                            drain();
+                            return;
+                        default:
+                            throw new IllegalStateException("Unknown overflow policy: " + overflow);
+                    }
+                }
+                message.getPayload().retain();
+                queue.add(new Entry(message));
+                size = queue.size();
+                if (queue.size() > maxQueued) {
+                    maxQueued = queue.size();
+                }
+            }
+            drain();
+        }
+
+        private void terminate(@Nullable Throwable t) {
+            failure = t;
+            terminated = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                boolean consumed = false;
+                while (sink.requestedFromDownstream() > 0) {
+                    Entry entry;
+                    synchronized (this) {
+                        entry = queue.poll();
+                        size = queue.size();
+                    }
+                    if (entry == null) {
+                        break;
+                    }
+                    consumed = true;
+                    try {
+                        sink.next(entry.message);
+                        delivered++;
+                    } finally {
+                        entry.release();
+                    }
+                }
+                if (consumed && overflow == Overflow.BACKPRESSURE) {
+                    replenish();
+                }
+                if (terminated && (failure != null || isEmpty())) {
+                    if (failure != null) {
+                        sink.error(failure);
+                    } else {
+                        sink.complete();
+                    }
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private synchronized boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        private synchronized void clear() {
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                entry.release();
+            }
+            size = 0;
+        }
+
+        private SubscriberLag lag() {
+            int queued;
+            long oldest;
+            synchronized (this) {
+                queued = queue.size();
+                Entry head = queue.peek();
+                oldest = head == null ? 0 : System.nanoTime() - head.enqueuedAt;
+            }
+            return new SubscriberLag(name, overflow, capacity, queued, maxQueued, delivered, dropped,
+                    Duration.ofNanos(oldest));
+        }
+    }
+}
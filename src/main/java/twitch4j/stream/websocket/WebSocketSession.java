@@ -15,8 +15,11 @@ import reactor.ipc.netty.NettyPipeline;
 import reactor.ipc.netty.http.client.HttpClient;
 import reactor.ipc.netty.http.websocket.WebsocketInbound;
 import reactor.ipc.netty.http.websocket.WebsocketOutbound;
+import reactor.util.concurrent.Queues;
 import reactor.util.Logger;
 import reactor.util.Loggers;
+import twitch4j.stream.websocket.irc.IrcMessage;
+import twitch4j.stream.websocket.irc.IrcMessageParser;
 
 /**
  * WebSocket adapter around {@link reactor.ipc.netty.http.websocket.WebsocketInbound WebSocketInbound} and {@link
@@ -39,21 +42,54 @@ public class WebSocketSession {
      */
     private final String id;
 
+    /**
+     * Return the hub sharing the inbound messages between every receiver of this session.
+     *
+     * @return the inbound multicast, also exposing the lag of each receiver
+     */
+    @ToString.Exclude
+    private final WebSocketMulticast multicast;
+
     public WebSocketSession(WebsocketInbound inbound, WebsocketOutbound outbound) {
         this.delegate = new WebSocketConnection(inbound, outbound);
         this.id = Integer.toHexString(System.identityHashCode(delegate));
+        this.multicast = new WebSocketMulticast(inbound.aggregateFrames()
+                .receiveFrames()
+                .map(WebSocketMessage::fromFrame));
     }
 
     /**
-     * Get the flux of incoming messages, aggregated from frames.
+     * Get the flux of incoming messages, aggregated from frames. Every call shares the same inbound connection, and
+     * is back-pressured: once it falls {@link Queues#SMALL_BUFFER_SIZE} messages behind, the connection is no longer
+     * read until it catches up. Use {@link #receive(WebSocketMulticast.Overflow, int)} to drop messages or fail
+     * instead.
      *
      * @return a {@code Flux<WebSocketMessage>} inbound from the connection.
      */
     public Flux<WebSocketMessage> receive() {
-        return getDelegate().getInbound()
-                .aggregateFrames()
-                .receiveFrames()
-                .map(WebSocketMessage::fromFrame);
+        return receive(WebSocketMulticast.Overflow.BACKPRESSURE, Queues.SMALL_BUFFER_SIZE);
+    }
+
+    /**
+     * Get the flux of incoming messages, aggregated from frames, with a dedicated buffer. Every call shares the same
+     * inbound connection, so a slow receiver only affects itself.
+     *
+     * @param overflow the policy applied when the buffer of this receiver is full
+     * @param capacity the maximum number of messages buffered for this receiver
+     * @return a {@code Flux<WebSocketMessage>} inbound from the connection.
+     */
+    public Flux<WebSocketMessage> receive(WebSocketMulticast.Overflow overflow, int capacity) {
+        return multicast.subscribe(overflow, capacity);
+    }
+
+    /**
+     * Get the flux of incoming IRC messages, one per line of each text frame.
+     *
+     * @return a {@code Flux<IrcMessage>} inbound from the connection.
+     * @see IrcMessageParser#decode(Flux)
+     */
+    public Flux<IrcMessage> receiveIrc() {
+        return IrcMessageParser.decode(receive());
     }
 
     /**
@@ -72,9 +108,13 @@ public class WebSocketSession {
 
     /**
      * Replace internal reactor-netty logging handler for HttpClients with a custom one that provides more concise
-     * information.
+     * information. Does nothing unless DEBUG is enabled for {@link HttpClient}, so no handler is added to the pipeline
+     * when it would log nothing.
      */
     public void replaceLoggingHandler() {
+        if (!Loggers.getLogger(HttpClient.class).isDebugEnabled()) {
+            return;
+        }
         getDelegate().getInbound().context()
                 .replaceHandler("reactor.left.loggingHandler",
                         new SimpleLoggingHandler(HttpClient.class, LogLevel.DEBUG));
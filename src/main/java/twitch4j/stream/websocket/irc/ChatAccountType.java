@@ -0,0 +1,36 @@
+package twitch4j.stream.websocket.irc;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Chat rate limits of a Twitch account, as messages per 30 seconds.
+ *
+ * @see <a href="https://dev.twitch.tv/docs/irc/guide/#command--message-limits">Command and Message Limits</a>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ChatAccountType {
+
+    /**
+     * A regular account: 20 messages in channels where it is not a moderator, 100 overall.
+     */
+    USER(20, 100),
+    /**
+     * A known bot: 50 messages in channels where it is not a moderator, 100 overall.
+     */
+    KNOWN_BOT(50, 100),
+    /**
+     * A verified bot: 7500 messages, regardless of moderator status.
+     */
+    VERIFIED_BOT(7500, 7500);
+
+    /**
+     * Messages allowed per window in channels where the account is not a moderator.
+     */
+    private final int userLimit;
+    /**
+     * Messages allowed per window overall, including channels where the account is a moderator.
+     */
+    private final int moderatorLimit;
+}
@@ -0,0 +1,440 @@
+package twitch4j.stream.websocket.irc;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.EmitterProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import twitch4j.stream.websocket.WebSocketMessage;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Paces outbound chat messages of a single account so they stay within the Twitch chat rate limits.
+ * <p>
+ * Every message takes a token from the account bucket, and messages to channels where the account is not a moderator
+ * also take one from the stricter user bucket and from the bucket of that channel. Pending messages are sent by
+ * {@link Priority} and then in order of submission, skipping over messages whose channel is still cooling down, so the
+ * allowance is fully used without ever exceeding it. Pending messages are indexed by channel, so scheduling a message
+ * never scans the whole queue, and messages are emitted outside of the lock. Each bucket returns a token one window
+ * after it was spent, plus a safety margin covering the latency jitter between this client and Twitch.
+ * <p>
+ * The scheduled messages are emitted by {@link #outbound()}, which is meant to be given to
+ * {@link twitch4j.stream.websocket.WebSocketSession#send(org.reactivestreams.Publisher)}.
+ */
+public class ChatScheduler {
+
+    private static final Duration WINDOW = Duration.ofSeconds(30);
+    private static final Comparator<Pending> BY_ORDER = Comparator.comparing((Pending p) -> p.priority)
+            .thenComparingLong(p -> p.sequence);
+    private static final Comparator<Channel> BY_HEAD = (a, b) -> BY_ORDER.compare(a.queue.first(), b.queue.first());
+
+    private final EmitterProcessor<WebSocketMessage> outbound = EmitterProcessor.create(false);
+    private final FluxSink<WebSocketMessage> sink = outbound.sink();
+    private final Scheduler scheduler;
+    private final TokenBucket accountBucket;
+    private final TokenBucket userBucket;
+    private final int channelLimit;
+    private final Duration channelWindow;
+    private final Map<String, TokenBucket> channelBuckets = new ConcurrentHashMap<>();
+    private final Set<String> moderatedChannels = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The channels with pending messages, each in exactly one index: the channels where the account is a moderator,
+     * the other channels whose bucket has a token, both ordered by their head message, and the channels cooling down,
+     * ordered by when their bucket has a token again. All guarded by {@code this}.
+     */
+    private final Map<String, Channel> channels = new HashMap<>();
+    private final TreeSet<Channel> moderatedReady = new TreeSet<>(BY_HEAD);
+    private final TreeSet<Channel> ready = new TreeSet<>(BY_HEAD);
+    private final PriorityQueue<Channel> cooling = new PriorityQueue<>(
+            Comparator.comparingLong((Channel c) -> c.availableAt));
+    private int size;
+
+    /**
+     * The messages taken from the queues but not emitted yet, in order.
+     */
+    private final Queue<Pending> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger emitting = new AtomicInteger();
+
+    private long sequence;
+    @Nullable
+    private Disposable wakeUp;
+    private long wakeUpAt;
+
+    private ChatScheduler(Builder builder) {
+        this.scheduler = builder.scheduler;
+        this.accountBucket = new TokenBucket(builder.accountType.getModeratorLimit(), WINDOW.plus(builder.margin));
+        this.userBucket = new TokenBucket(builder.accountType.getUserLimit(), WINDOW.plus(builder.margin));
+        this.channelLimit = builder.channelLimit;
+        this.channelWindow = builder.channelWindow.plus(builder.margin);
+    }
+
+    /**
+     * A {@link ChatScheduler} builder.
+     *
+     * @param accountType the type of the account sending messages, which determines its limits
+     * @return a builder
+     */
+    public static Builder builder(ChatAccountType accountType) {
+        return new Builder(accountType);
+    }
+
+    /**
+     * Get the flux of paced messages, to be written to the WebSocket session.
+     *
+     * @return a {@code Flux<WebSocketMessage>} of outbound messages
+     */
+    public Flux<WebSocketMessage> outbound() {
+        return outbound;
+    }
+
+    /**
+     * Mark the account as a moderator of the given channel, or not, which lifts the per-channel limit and uses the
+     * higher account limit.
+     *
+     * @param channel   the channel name
+     * @param moderator whether the account is a moderator of the channel
+     */
+    public void setModerator(String channel, boolean moderator) {
+        String name = normalize(channel);
+        if (moderator) {
+            moderatedChannels.add(name);
+        } else {
+            moderatedChannels.remove(name);
+        }
+        reindex(name);
+        drain();
+    }
+
+    /**
+     * Queue a chat message with {@link Priority#NORMAL normal} priority.
+     *
+     * @param channel the channel name, with or without a leading {@code #}
+     * @param text    the message text
+     * @return a Mono completing once the message is emitted to {@link #outbound()}
+     */
+    public Mono<Void> send(String channel, String text) {
+        return send(channel, text, Priority.NORMAL);
+    }
+
+    /**
+     * Queue a chat message. Cancelling the returned Mono before the message is emitted removes it from the queue.
+     *
+     * @param channel  the channel name, with or without a leading {@code #}
+     * @param text     the message text
+     * @param priority the priority of the message relative to the other pending messages
+     * @return a Mono completing once the message is emitted to {@link #outbound()}
+     */
+    public Mono<Void> send(String channel, String text, Priority priority) {
+        String name = normalize(channel);
+        return Mono.defer(() -> {
+            MonoProcessor<Void> sent = MonoProcessor.create();
+            Pending message = enqueue(name, "PRIVMSG #" + name + " :" + text, priority, sent);
+            return sent.doOnCancel(() -> remove(message));
+        });
+    }
+
+    /**
+     * Return the number of messages waiting to be sent.
+     *
+     * @return the queue size
+     */
+    public synchronized int getQueueSize() {
+        return size;
+    }
+
+    private Pending enqueue(String channel, String line, Priority priority, MonoProcessor<Void> sent) {
+        Pending message;
+        synchronized (this) {
+            message = new Pending(channel, line, priority, sequence++, sent);
+            Channel state = channels.computeIfAbsent(channel, Channel::new);
+            if (state.index != cooling) {
+                unindex(state);
+            }
+            state.queue.add(message);
+            size++;
+            if (state.index == null) {
+                index(state, System.nanoTime());
+            }
+            schedule();
+        }
+        emit();
+        return message;
+    }
+
+    private synchronized void remove(Pending message) {
+        Channel state = channels.get(message.channel);
+        if (state == null) {
+            return;
+        }
+        // a cooling channel is keyed by time, not by its head message, so it stays in place and is dropped lazily
+        boolean cooling = state.index == this.cooling;
+        if (!cooling) {
+            unindex(state);
+        }
+        if (state.queue.remove(message)) {
+            size--;
+        }
+        if (!cooling) {
+            index(state, System.nanoTime());
+        }
+    }
+
+    private synchronized void reindex(String channel) {
+        Channel state = channels.get(channel);
+        if (state != null) {
+            unindex(state);
+            index(state, System.nanoTime());
+        }
+    }
+
+    private void drain() {
+        synchronized (this) {
+            schedule();
+        }
+        emit();
+    }
+
+    /**
+     * Move every message that may be sent right now to the outbox, in order, and arm the timer for the next one. Only
+     * the head message of each channel is considered, so this takes logarithmic time per message sent, whatever the
+     * number of pending messages.
+     */
+    private void schedule() {
+        long now = System.nanoTime();
+        while (!cooling.isEmpty() && cooling.peek().availableAt <= now) {
+            Channel state = cooling.poll();
+            state.index = null;
+            index(state, now);
+        }
+        while (accountBucket.availableAt(now) <= now) {
+            Channel state = moderatedReady.isEmpty() ? null : moderatedReady.first();
+            if (!ready.isEmpty() && userBucket.availableAt(now) <= now
+                    && (state == null || BY_HEAD.compare(ready.first(), state) < 0)) {
+                state = ready.first();
+            }
+            if (state == null) {
+                break;
+            }
+            unindex(state);
+            outbox.add(state.queue.pollFirst());
+            size--;
+            take(state.name, now);
+            index(state, now);
+        }
+
+        long nextAt = cooling.isEmpty() ? Long.MAX_VALUE : cooling.peek().availableAt;
+        if (!moderatedReady.isEmpty()) {
+            nextAt = Math.min(nextAt, accountBucket.availableAt(now));
+        }
+        if (!ready.isEmpty()) {
+            nextAt = Math.min(nextAt, Math.max(accountBucket.availableAt(now), userBucket.availableAt(now)));
+        }
+        if (nextAt != Long.MAX_VALUE && (wakeUp == null || nextAt < wakeUpAt)) {
+            if (wakeUp != null) {
+                wakeUp.dispose();
+            }
+            wakeUpAt = nextAt;
+            wakeUp = scheduler.schedule(this::wakeUp, nextAt - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void wakeUp() {
+        synchronized (this) {
+            wakeUp = null;
+            schedule();
+        }
+        emit();
+    }
+
+    /**
+     * Put a channel with pending messages in the index matching its state: ready to send, or cooling down until its
+     * own bucket has a token. A channel without pending messages is forgotten.
+     */
+    private void index(Channel state, long now) {
+        if (state.queue.isEmpty()) {
+            channels.remove(state.name);
+            return;
+        }
+        if (moderatedChannels.contains(state.name)) {
+            state.index = moderatedReady;
+        } else {
+            long availableAt = channelBucket(state.name).availableAt(now);
+            if (availableAt > now) {
+                state.availableAt = availableAt;
+                state.index = cooling;
+            } else {
+                state.index = ready;
+            }
+        }
+        state.index.add(state);
+    }
+
+    private void unindex(Channel state) {
+        if (state.index != null) {
+            state.index.remove(state);
+            state.index = null;
+        }
+    }
+
+    /**
+     * Emit the messages of the outbox, outside of the lock and in the order they were scheduled, from a single thread
+     * at a time.
+     */
+    private void emit() {
+        if (emitting.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            Pending message;
+            while ((message = outbox.poll()) != null) {
+                sink.next(WebSocketMessage.fromText(message.line));
+                message.sent.onComplete();
+            }
+            missed = emitting.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private void take(String channel, long now) {
+        accountBucket.take(now);
+        if (!moderatedChannels.contains(channel)) {
+            userBucket.take(now);
+            channelBucket(channel).take(now);
+        }
+    }
+
+    private TokenBucket channelBucket(String channel) {
+        return channelBuckets.computeIfAbsent(channel, k -> new TokenBucket(channelLimit, channelWindow));
+    }
+
+    private static String normalize(String channel) {
+        return (channel.startsWith("#") ? channel.substring(1) : channel).toLowerCase();
+    }
+
+    /**
+     * The order in which pending messages are considered for sending.
+     */
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    /**
+     * The pending messages of a channel, guarded by the scheduler.
+     */
+    private static class Channel {
+
+        private final String name;
+        private final TreeSet<Pending> queue = new TreeSet<>(BY_ORDER);
+        /**
+         * The index holding this channel, or {@code null} if it is being moved.
+         */
+        @Nullable
+        private Collection<Channel> index;
+        /**
+         * When the bucket of this channel has a token again, while it is cooling down.
+         */
+        private long availableAt;
+
+        private Channel(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class Pending {
+
+        private final String channel;
+        private final String line;
+        private final Priority priority;
+        private final long sequence;
+        private final MonoProcessor<Void> sent;
+
+        private Pending(String channel, String line, Priority priority, long sequence, MonoProcessor<Void> sent) {
+            this.channel = channel;
+            this.line = line;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.sent = sent;
+        }
+    }
+
+    /**
+     * A mutable builder for a {@link ChatScheduler}.
+     */
+    public static class Builder {
+
+        private final ChatAccountType accountType;
+        private int channelLimit = 1;
+        private Duration channelWindow = Duration.ofSeconds(1);
+        private Duration margin = Duration.ofMillis(250);
+        private Scheduler scheduler = Schedulers.parallel();
+
+        private Builder(ChatAccountType accountType) {
+            this.accountType = accountType;
+        }
+
+        /**
+         * Set how many messages may be sent to a single channel where the account is not a moderator.
+         *
+         * @param limit  the number of messages per window
+         * @param window the length of the window
+         * @return this builder
+         */
+        public Builder channelLimit(int limit, Duration window) {
+            this.channelLimit = limit;
+            this.channelWindow = window;
+            return this;
+        }
+
+        /**
+         * Set the extra time a spent token is held before returning to its bucket.
+         *
+         * @param margin the safety margin added to every window
+         * @return this builder
+         */
+        public Builder margin(Duration margin) {
+            this.margin = margin;
+            return this;
+        }
+
+        /**
+         * Set the scheduler used to wait for tokens to become available.
+         *
+         * @param scheduler the timer scheduler
+         * @return this builder
+         */
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Build the {@link ChatScheduler} instance.
+         *
+         * @return a chat scheduler
+         */
+        public ChatScheduler build() {
+            return new ChatScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package twitch4j.stream.websocket.irc;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single IRC line with optional IRCv3 tags, viewed directly over the {@link ByteBuf} it was read from.
+ * <p>
+ * Parsing only records the boundaries of each section, nothing is decoded until it is requested. Tags, prefix,
+ * command and parameters are decoded lazily and cached, while methods like {@link #isCommand(CharSequence)} or
+ * {@link #hasTag(CharSequence)} compare the raw bytes and never allocate.
+ * <p>
+ * A message is only a view: it is valid as long as the underlying buffer is. Messages given to the consumer of
+ * {@link IrcMessageParser#parse(ByteBuf, java.util.function.Consumer) parse} view the frame itself, and the reused
+ * instance is only valid until the consumer returns, so use {@link #copy()} to keep one around. Messages emitted by
+ * {@link IrcMessageParser#decode(reactor.core.publisher.Flux) decode} view a copy of their frame and remain valid for
+ * as long as they are referenced.
+ *
+ * @see IrcMessageParser
+ */
+public final class IrcMessage {
+
+    private static final int MAX_PARAMS = 15;
+
+    private ByteBuf buffer;
+    private int start;
+    private int end;
+    private int tagsStart;
+    private int tagsEnd;
+    private int prefixStart;
+    private int prefixEnd;
+    private int commandStart;
+    private int commandEnd;
+    private int paramsStart;
+
+    private int paramCount;
+    private final int[] paramStarts = new int[MAX_PARAMS];
+    private final int[] paramEnds = new int[MAX_PARAMS];
+
+    @Nullable
+    private String command;
+    @Nullable
+    private String prefix;
+    @Nullable
+    private Map<String, String> tags;
+
+    IrcMessage() {
+    }
+
+    /**
+     * Parse a single line, without its line terminator, from the given buffer.
+     *
+     * @param buffer the buffer holding the line
+     * @return a message viewing the readable bytes of the buffer
+     * @throws IllegalArgumentException if the line has no command
+     */
+    public static IrcMessage of(ByteBuf buffer) {
+        IrcMessage message = new IrcMessage();
+        if (!message.wrap(buffer, buffer.readerIndex(), buffer.writerIndex())) {
+            throw new IllegalArgumentException("Not an IRC message: " + buffer.toString(StandardCharsets.UTF_8));
+        }
+        return message;
+    }
+
+    /**
+     * Parse a single line, without its line terminator.
+     *
+     * @param line the raw IRC line
+     * @return a message viewing the encoded line
+     * @throws IllegalArgumentException if the line has no command
+     */
+    public static IrcMessage of(String line) {
+        return of(Unpooled.wrappedBuffer(line.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Point this instance at the line in {@code [start, end)} and locate its sections.
+     *
+     * @return {@code false} if the line does not contain a command
+     */
+    boolean wrap(ByteBuf buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.tagsStart = this.tagsEnd = -1;
+        this.prefixStart = this.prefixEnd = -1;
+        this.paramCount = -1;
+        this.command = null;
+        this.prefix = null;
+        this.tags = null;
+
+        int pos = start;
+        if (pos < end && buffer.getByte(pos) == '@') {
+            tagsStart = pos + 1;
+            tagsEnd = indexOrEnd(tagsStart, ' ');
+            pos = skipSpaces(tagsEnd);
+        }
+        if (pos < end && buffer.getByte(pos) == ':') {
+            prefixStart = pos + 1;
+            prefixEnd = indexOrEnd(prefixStart, ' ');
+            pos = skipSpaces(prefixEnd);
+        }
+        commandStart = pos;
+        commandEnd = indexOrEnd(pos, ' ');
+        paramsStart = skipSpaces(commandEnd);
+        return commandEnd > commandStart;
+    }
+
+    /**
+     * Return the whole line, excluding its terminator, as a slice of the underlying buffer.
+     *
+     * @return the raw line
+     */
+    public ByteBuf getRaw() {
+        return buffer.slice(start, end - start);
+    }
+
+    /**
+     * Return the command, like {@code PRIVMSG} or a three digit numeric.
+     *
+     * @return the decoded command
+     */
+    public String getCommand() {
+        if (command == null) {
+            command = decode(commandStart, commandEnd);
+        }
+        return command;
+    }
+
+    /**
+     * Whether the command of this message equals the given ASCII value. This does not allocate.
+     *
+     * @param name the command to compare to, like {@code "PRIVMSG"}
+     * @return {@code true} if the command matches
+     */
+    public boolean isCommand(CharSequence name) {
+        return regionEquals(commandStart, commandEnd, name);
+    }
+
+    /**
+     * Return the prefix, the source of this message, without its leading colon.
+     *
+     * @return the prefix, or {@code null} if the message has none
+     */
+    @Nullable
+    public String getPrefix() {
+        if (prefix == null && prefixStart >= 0) {
+            prefix = decode(prefixStart, prefixEnd);
+        }
+        return prefix;
+    }
+
+    /**
+     * Return the nickname part of the prefix, that is everything before {@code '!'} or {@code '@'}.
+     *
+     * @return the nickname, or {@code null} if the message has no prefix
+     */
+    @Nullable
+    public String getNick() {
+        if (prefixStart < 0) {
+            return null;
+        }
+        int nickEnd = prefixStart;
+        while (nickEnd < prefixEnd) {
+            byte b = buffer.getByte(nickEnd);
+            if (b == '!' || b == '@') {
+                break;
+            }
+            nickEnd++;
+        }
+        return decode(prefixStart, nickEnd);
+    }
+
+    /**
+     * Whether this message carries any IRCv3 tags.
+     *
+     * @return {@code true} if the message starts with a tag section
+     */
+    public boolean hasTags() {
+        return tagsStart >= 0;
+    }
+
+    /**
+     * Whether the given tag is present. This does not allocate.
+     *
+     * @param key the tag key
+     * @return {@code true} if the tag is present, with or without a value
+     */
+    public boolean hasTag(CharSequence key) {
+        return findTagValue(key) != -2;
+    }
+
+    /**
+     * Return the unescaped value of the given tag. Only the requested value is decoded.
+     *
+     * @param key the tag key
+     * @return the tag value, an empty string for a tag without value, or {@code null} if the tag is absent
+     */
+    @Nullable
+    public String getTag(CharSequence key) {
+        if (tags != null) {
+            return tags.get(key.toString());
+        }
+        int valueStart = findTagValue(key);
+        if (valueStart == -2) {
+            return null;
+        }
+        if (valueStart == -1) {
+            return "";
+        }
+        return unescape(valueStart, indexOrLimit(valueStart, tagsEnd, ';'));
+    }
+
+    /**
+     * Return all tags of this message, decoded and unescaped. The map is built on first access and cached.
+     *
+     * @return an unmodifiable map of tag keys to values
+     */
+    public Map<String, String> getTags() {
+        if (tags == null) {
+            if (tagsStart < 0) {
+                tags = Collections.emptyMap();
+            } else {
+                Map<String, String> map = new LinkedHashMap<>();
+                int pos = tagsStart;
+                while (pos < tagsEnd) {
+                    int tagEnd = indexOrLimit(pos, tagsEnd, ';');
+                    int equals = indexOrLimit(pos, tagEnd, '=');
+                    String value = equals < tagEnd ? unescape(equals + 1, tagEnd) : "";
+                    map.put(decode(pos, equals), value);
+                    pos = tagEnd + 1;
+                }
+                tags = Collections.unmodifiableMap(map);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Return the number of parameters, including the trailing one.
+     *
+     * @return the parameter count
+     */
+    public int getParamCount() {
+        splitParams();
+        return paramCount;
+    }
+
+    /**
+     * Return the parameter at the given index. A trailing parameter is returned without its leading colon.
+     *
+     * @param index the parameter index
+     * @return the decoded parameter
+     * @throws IndexOutOfBoundsException if there is no such parameter
+     */
+    public String getParam(int index) {
+        checkParam(index);
+        return decode(paramStarts[index], paramEnds[index]);
+    }
+
+    /**
+     * Return the parameter at the given index as a slice of the underlying buffer, without decoding it.
+     *
+     * @param index the parameter index
+     * @return the raw parameter
+     * @throws IndexOutOfBoundsException if there is no such parameter
+     */
+    public ByteBuf getParamAsBuffer(int index) {
+        checkParam(index);
+        return buffer.slice(paramStarts[index], paramEnds[index] - paramStarts[index]);
+    }
+
+    /**
+     * Whether the parameter at the given index equals the given ASCII value. This does not allocate.
+     *
+     * @param index the parameter index
+     * @param value the value to compare to
+     * @return {@code true} if the parameter exists and matches
+     */
+    public boolean isParam(int index, CharSequence value) {
+        splitParams();
+        return index < paramCount && regionEquals(paramStarts[index], paramEnds[index], value);
+    }
+
+    /**
+     * Return the last parameter, usually the trailing one holding the message text.
+     *
+     * @return the last parameter, or {@code null} if the message has no parameters
+     */
+    @Nullable
+    public String getTrailing() {
+        splitParams();
+        return paramCount == 0 ? null : getParam(paramCount - 1);
+    }
+
+    /**
+     * Create a detached copy of this message that does not share the underlying buffer.
+     *
+     * @return a copy that remains valid after the original buffer is released
+     */
+    public IrcMessage copy() {
+        return of(buffer.copy(start, end - start));
+    }
+
+    @Override
+    public String toString() {
+        return decode(start, end);
+    }
+
+    private void splitParams() {
+        if (paramCount >= 0) {
+            return;
+        }
+        int count = 0;
+        int pos = paramsStart;
+        while (pos < end && count < MAX_PARAMS) {
+            if (buffer.getByte(pos) == ':') {
+                paramStarts[count] = pos + 1;
+                paramEnds[count++] = end;
+                break;
+            }
+            int paramEnd = indexOrEnd(pos, ' ');
+            paramStarts[count] = pos;
+            paramEnds[count++] = paramEnd;
+            pos = skipSpaces(paramEnd);
+        }
+        paramCount = count;
+    }
+
+    private void checkParam(int index) {
+        splitParams();
+        if (index < 0 || index >= paramCount) {
+            throw new IndexOutOfBoundsException("Parameter " + index + " of " + paramCount);
+        }
+    }
+
+    /**
+     * Locate a tag by key.
+     *
+     * @return the index of the value, {@code -1} if the tag has no value or {@code -2} if it is absent
+     */
+    private int findTagValue(CharSequence key) {
+        int pos = tagsStart;
+        while (pos >= 0 && pos < tagsEnd) {
+            int tagEnd = indexOrLimit(pos, tagsEnd, ';');
+            int equals = indexOrLimit(pos, tagEnd, '=');
+            if (regionEquals(pos, equals, key)) {
+                return equals < tagEnd ? equals + 1 : -1;
+            }
+            pos = tagEnd + 1;
+        }
+        return -2;
+    }
+
+    private boolean regionEquals(int from, int to, CharSequence value) {
+        int length = value.length();
+        if (to - from != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.getByte(from + i) != (byte) value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String unescape(int from, int to) {
+        if (indexOrLimit(from, to, '\\') == to) {
+            return decode(from, to);
+        }
+        StringBuilder builder = new StringBuilder(to - from);
+        String raw = decode(from, to);
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+            } else if (++i < raw.length()) {
+                switch (raw.charAt(i)) {
+                    case ':':
+                        builder.append(';');
+                        break;
+                    case 's':
+                        builder.append(' ');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    default:
+                        builder.append(raw.charAt(i));
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private String decode(int from, int to) {
+        return buffer.toString(from, to - from, StandardCharsets.UTF_8);
+    }
+
+    private int indexOrEnd(int from, char value) {
+        return indexOrLimit(from, end, value);
+    }
+
+    private int indexOrLimit(int from, int limit, char value) {
+        if (from >= limit) {
+            return limit;
+        }
+        int index = buffer.indexOf(from, limit, (byte) value);
+        return index < 0 ? limit : index;
+    }
+
+    private int skipSpaces(int from) {
+        int pos = from;
+        while (pos < end && buffer.getByte(pos) == ' ') {
+            pos++;
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,120 @@
+package twitch4j.stream.websocket.irc;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import reactor.core.publisher.Flux;
+import twitch4j.stream.websocket.WebSocketMessage;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Splits WebSocket frames into {@link IrcMessage IrcMessages} without copying or decoding their payload.
+ * <p>
+ * Twitch may send several CRLF separated lines in a single frame. {@link #parse(ByteBuf, Consumer)} walks them with a
+ * single reusable message instance and does not allocate, which makes it suitable for busy channels where the
+ * consumer only inspects a few fields. {@link #decode(Flux)} is the equivalent pipeline stage that emits one message
+ * instance per line.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class IrcMessageParser {
+
+    private final IrcMessage flyweight = new IrcMessage();
+
+    /**
+     * Parse every line in the readable bytes of the given buffer, passing each one to the consumer. The same
+     * {@link IrcMessage} instance is reused for every line, so it must not be kept once the consumer returns.
+     *
+     * @param buffer   the buffer to read, its reader index is left untouched
+     * @param consumer the consumer of each parsed line
+     * @return the number of messages parsed
+     */
+    public int parse(ByteBuf buffer, Consumer<? super IrcMessage> consumer) {
+        int count = 0;
+        int pos = buffer.readerIndex();
+        int limit = buffer.writerIndex();
+        while (pos < limit) {
+            int lineEnd = lineEnd(buffer, pos, limit);
+            if (flyweight.wrap(buffer, pos, trimCr(buffer, pos, lineEnd))) {
+                consumer.accept(flyweight);
+                count++;
+            }
+            pos = lineEnd + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Return the lines of the given buffer as a lazily parsed sequence. Unlike {@link #parse(ByteBuf, Consumer)}
+     * each line is a new {@link IrcMessage} instance, still viewing the given buffer.
+     *
+     * @param buffer the buffer to read, its reader index is left untouched
+     * @return an iterable over the messages of the buffer
+     */
+    public static Iterable<IrcMessage> split(ByteBuf buffer) {
+        return () -> new LineIterator(buffer);
+    }
+
+    /**
+     * Inbound pipeline stage turning text frames into IRC messages.
+     * <p>
+     * The payload of a frame is released once the frame has been delivered, while its lines may still wait in the
+     * queue of this stage or downstream. The payload is therefore copied once per frame to an unpooled heap buffer,
+     * and the emitted messages view that copy, so they remain valid for as long as they are referenced.
+     *
+     * @param messages the inbound WebSocket messages, usually {@link twitch4j.stream.websocket.WebSocketSession#receive()}
+     * @return a {@code Flux<IrcMessage>} with one element per line
+     */
+    public static Flux<IrcMessage> decode(Flux<WebSocketMessage> messages) {
+        return messages.filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
+                .flatMapIterable(message -> split(Unpooled.copiedBuffer(message.getPayload())));
+    }
+
+    private static int lineEnd(ByteBuf buffer, int from, int limit) {
+        int index = buffer.indexOf(from, limit, (byte) '\n');
+        return index < 0 ? limit : index;
+    }
+
+    private static int trimCr(ByteBuf buffer, int from, int lineEnd) {
+        return lineEnd > from && buffer.getByte(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    private static class LineIterator implements Iterator<IrcMessage> {
+
+        private final ByteBuf buffer;
+        private final int limit;
+        private int pos;
+        private IrcMessage next;
+
+        private LineIterator(ByteBuf buffer) {
+            this.buffer = buffer;
+            this.pos = buffer.readerIndex();
+            this.limit = buffer.writerIndex();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && pos < limit) {
+                int lineEnd = lineEnd(buffer, pos, limit);
+                IrcMessage message = new IrcMessage();
+                if (message.wrap(buffer, pos, trimCr(buffer, pos, lineEnd))) {
+                    next = message;
+                }
+                pos = lineEnd + 1;
+            }
+            return next != null;
+        }
+
+        @Override
+        public IrcMessage next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IrcMessage message = next;
+            next = null;
+            return message;
+        }
+    }
+}
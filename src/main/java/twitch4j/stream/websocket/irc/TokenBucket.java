@@ -0,0 +1,60 @@
+package twitch4j.stream.websocket.irc;
+
+import java.time.Duration;
+
+/**
+ * A bucket of {@code capacity} tokens where each spent token returns to the bucket exactly one window after it was
+ * spent.
+ * <p>
+ * This mirrors how Twitch counts chat messages over a rolling window: as long as a token is taken for every message,
+ * no window of the given length ever contains more than {@code capacity} messages, while a full bucket can still be
+ * spent in a single burst.
+ * <p>
+ * Instances are not thread-safe.
+ */
+final class TokenBucket {
+
+    private final long[] spentAt;
+    private final long windowNanos;
+    private int head;
+    private int spent;
+
+    TokenBucket(int capacity, Duration window) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.spentAt = new long[capacity];
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Return the earliest time, in {@link System#nanoTime()} units, at which a token is available.
+     *
+     * @param now the current time
+     * @return {@code now} if a token is available, a later time otherwise
+     */
+    long availableAt(long now) {
+        refill(now);
+        return spent < spentAt.length ? now : spentAt[head] + windowNanos;
+    }
+
+    /**
+     * Take a token, which must be available according to {@link #availableAt(long)}.
+     *
+     * @param now the current time
+     */
+    void take(long now) {
+        refill(now);
+        if (spent == spentAt.length) {
+            throw new IllegalStateException("No token available");
+        }
+        spentAt[(head + spent++) % spentAt.length] = now;
+    }
+
+    private void refill(long now) {
+        while (spent > 0 && now - spentAt[head] >= windowNanos) {
+            head = (head + 1) % spentAt.length;
+            spent--;
+        }
+    }
+}
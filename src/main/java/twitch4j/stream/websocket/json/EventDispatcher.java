@@ -0,0 +1,203 @@
+package twitch4j.stream.websocket.json;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.concurrent.Queues;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Distributes a single stream of decoded events to subscribers interested in a given event type.
+ * <p>
+ * The source is shared by every subscriber of {@link #on(Class)}, so each frame is decoded exactly once regardless of
+ * the number of subscribers. It is subscribed to when the first subscriber arrives, not when a listener is merely
+ * registered, and cancelled when the last one leaves, like {@code publish().refCount()}. Events are only handed to
+ * the types that currently have subscribers, so nothing piles up for types nobody listens to. Routing does not go
+ * through {@code instanceof} checks: the subscribers interested in a concrete event class are resolved the first time
+ * that class is seen and cached, so dispatching an event is a single map lookup.
+ * <p>
+ * Every subscriber has its own bounded buffer, so a slow subscriber never holds back the source or the other
+ * subscribers. When its buffer is full the configured {@link BufferOverflowStrategy} applies to that subscriber only,
+ * by default the oldest buffered event is dropped. The source itself is requested at most the buffer size ahead of
+ * the events dispatched so far.
+ *
+ * @param <E> the base type of dispatched events
+ */
+public class EventDispatcher<E> {
+
+    private static final Logger log = Loggers.getLogger(EventDispatcher.class);
+
+    private final Flux<E> source;
+    private final int bufferSize;
+    private final BufferOverflowStrategy overflowStrategy;
+    private final Map<Class<?>, Set<FluxSink<E>>> sinks = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<Set<FluxSink<E>>>> routes = new ConcurrentHashMap<>();
+
+    /**
+     * The number of current subscribers, the connection to the source and how the source has terminated, guarded by
+     * {@code this}.
+     */
+    private int subscribers;
+    @Nullable
+    private Connection connection;
+    private boolean done;
+    @Nullable
+    private Throwable error;
+
+    public EventDispatcher(Flux<E> source) {
+        this(source, Queues.SMALL_BUFFER_SIZE, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Create a dispatcher with the given buffer for each subscriber.
+     *
+     * @param source           the decoded events
+     * @param bufferSize       the number of events buffered for each subscriber
+     * @param overflowStrategy what to do when the buffer of a subscriber is full
+     */
+    public EventDispatcher(Flux<E> source, int bufferSize, BufferOverflowStrategy overflowStrategy) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.source = source;
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    /**
+     * Get the flux of events of the given type, including its subtypes.
+     *
+     * @param type the event type
+     * @param <T>  the event type
+     * @return a {@code Flux<T>} of dispatched events
+     */
+    public <T extends E> Flux<T> on(Class<T> type) {
+        return Flux.<E>create(sink -> register(type, sink), FluxSink.OverflowStrategy.IGNORE)
+                .onBackpressureBuffer(bufferSize, event -> log.debug("Subscriber of {} overflowed at {}",
+                        type.getSimpleName(), event), overflowStrategy)
+                .cast(type);
+    }
+
+    private void register(Class<?> type, FluxSink<E> sink) {
+        Connection connect = null;
+        boolean terminated;
+        Throwable terminal;
+        synchronized (this) {
+            terminated = done;
+            terminal = error;
+            if (!done) {
+                Set<FluxSink<E>> registered = sinks.get(type);
+                if (registered == null) {
+                    registered = new CopyOnWriteArraySet<>();
+                    sinks.put(type, registered);
+                    routes.clear(); // the new type may be interested in classes that were already resolved
+                }
+                registered.add(sink);
+                if (subscribers++ == 0) {
+                    connect = connection = new Connection();
+                }
+            }
+        }
+        if (terminated) {
+            if (terminal != null) {
+                sink.error(terminal);
+            } else {
+                sink.complete();
+            }
+            return;
+        }
+        sink.onDispose(() -> unregister(type, sink));
+        if (connect != null) {
+            // outside the lock, the source may emit synchronously, disposing before it is subscribed is safe
+            source.subscribe(connect);
+        }
+    }
+
+    private synchronized void unregister(Class<?> type, FluxSink<E> sink) {
+        Set<FluxSink<E>> registered = sinks.get(type);
+        if (registered != null && registered.remove(sink) && --subscribers == 0 && connection != null) {
+            connection.dispose();
+            connection = null;
+        }
+    }
+
+    private void dispatch(E event) {
+        List<Set<FluxSink<E>>> route = routes.get(event.getClass());
+        if (route == null) {
+            route = resolve(event.getClass());
+        }
+        for (Set<FluxSink<E>> registered : route) {
+            for (FluxSink<E> sink : registered) {
+                sink.next(event);
+            }
+        }
+    }
+
+    private synchronized List<Set<FluxSink<E>>> resolve(Class<?> eventClass) {
+        List<Set<FluxSink<E>>> resolved = new ArrayList<>();
+        sinks.forEach((type, registered) -> {
+            if (type.isAssignableFrom(eventClass)) {
+                resolved.add(registered);
+            }
+        });
+        List<Set<FluxSink<E>>> route = Collections.unmodifiableList(resolved);
+        routes.put(eventClass, route);
+        return route;
+    }
+
+    private void terminate(@Nullable Throwable error) {
+        List<FluxSink<E>> registered = new ArrayList<>();
+        synchronized (this) {
+            done = true;
+            this.error = error;
+            connection = null;
+            sinks.values().forEach(registered::addAll);
+        }
+        for (FluxSink<E> sink : registered) {
+            if (error != null) {
+                sink.error(error);
+            } else {
+                sink.complete();
+            }
+        }
+    }
+
+    /**
+     * The subscription to the source, requesting one more event for each one dispatched.
+     */
+    private class Connection extends BaseSubscriber<E> {
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(bufferSize);
+        }
+
+        @Override
+        protected void hookOnNext(E event) {
+            dispatch(event);
+            request(1);
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            terminate(throwable);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            terminate(null);
+        }
+    }
+}
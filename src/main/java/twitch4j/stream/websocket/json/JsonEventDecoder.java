@@ -0,0 +1,157 @@
+package twitch4j.stream.websocket.json;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.netty.buffer.ByteBufInputStream;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import twitch4j.stream.websocket.WebSocketMessage;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Decode the JSON payload of WebSocket messages into typed events using Jackson 2.9.
+ * <p>
+ * The concrete event type is chosen by the value of a discriminator field, like the {@code type} field of PubSub
+ * messages. Every frame is parsed once into a tree, and the tree is bound with an {@link ObjectReader} that was built
+ * once for each registered type, so no type or deserializer resolution happens per message.
+ *
+ * @param <E> the base type of decoded events
+ * @see EventDispatcher
+ */
+public class JsonEventDecoder<E> {
+
+    private static final Logger log = Loggers.getLogger(JsonEventDecoder.class);
+
+    private final ObjectReader treeReader;
+    private final JsonPointer discriminator;
+    private final Map<String, ObjectReader> readers;
+    @Nullable
+    private final ObjectReader fallbackReader;
+
+    private JsonEventDecoder(ObjectMapper objectMapper, JsonPointer discriminator, Map<String, ObjectReader> readers,
+                             @Nullable ObjectReader fallbackReader) {
+        this.treeReader = objectMapper.readerFor(JsonNode.class);
+        this.discriminator = discriminator;
+        this.readers = readers;
+        this.fallbackReader = fallbackReader;
+    }
+
+    /**
+     * A {@link JsonEventDecoder} builder.
+     *
+     * @param objectMapper  the mapper used to build the readers of each event type
+     * @param discriminator the name of the field selecting the event type, or a JSON pointer like {@code /data/type}
+     * @param <E>           the base type of decoded events
+     * @return a builder
+     */
+    public static <E> Builder<E> builder(ObjectMapper objectMapper, String discriminator) {
+        return new Builder<>(objectMapper, discriminator);
+    }
+
+    /**
+     * Decode a single message.
+     *
+     * @param message the message holding a JSON payload, its reader index is left untouched
+     * @return the decoded event, or {@code null} if its type is not registered and there is no fallback
+     */
+    @Nullable
+    public E decode(WebSocketMessage message) {
+        try {
+            JsonNode tree = treeReader.readTree((InputStream) new ByteBufInputStream(message.getPayload().duplicate()));
+            ObjectReader reader = readers.get(tree.at(discriminator).asText());
+            if (reader == null) {
+                reader = fallbackReader;
+            }
+            return reader == null ? null : reader.<E>readValue(tree);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Inbound pipeline stage turning text messages into events. Messages of unregistered types are skipped unless a
+     * fallback type was configured. Messages that cannot be decoded are logged and skipped, so a single malformed
+     * frame does not terminate the stream.
+     *
+     * @param messages the inbound WebSocket messages, usually {@link twitch4j.stream.websocket.WebSocketSession#receive()}
+     * @return a {@code Flux<E>} with one event per decoded message
+     */
+    public Flux<E> decode(Flux<WebSocketMessage> messages) {
+        return messages.filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
+                .<E>handle((message, sink) -> {
+                    E event;
+                    try {
+                        event = decode(message);
+                    } catch (RuntimeException e) {
+                        log.warn("Skipping undecodable message: {}", Exceptions.unwrap(e).toString());
+                        return;
+                    }
+                    if (event != null) {
+                        sink.next(event);
+                    }
+                });
+    }
+
+    /**
+     * A mutable builder for a {@link JsonEventDecoder}.
+     *
+     * @param <E> the base type of decoded events
+     */
+    public static class Builder<E> {
+
+        private final ObjectMapper objectMapper;
+        private final JsonPointer discriminator;
+        private final Map<String, ObjectReader> readers = new HashMap<>();
+        @Nullable
+        private ObjectReader fallbackReader;
+
+        private Builder(ObjectMapper objectMapper, String discriminator) {
+            this.objectMapper = Objects.requireNonNull(objectMapper);
+            this.discriminator = JsonPointer.compile(discriminator.startsWith("/") ? discriminator : "/" + discriminator);
+        }
+
+        /**
+         * Decode messages whose discriminator equals the given value into the given type.
+         *
+         * @param value the discriminator value
+         * @param type  the event type
+         * @return this builder
+         */
+        public Builder<E> event(String value, Class<? extends E> type) {
+            readers.put(value, objectMapper.readerFor(type));
+            return this;
+        }
+
+        /**
+         * Decode messages with an unknown discriminator into the given type instead of skipping them.
+         *
+         * @param type the event type for unknown messages
+         * @return this builder
+         */
+        public Builder<E> fallback(Class<? extends E> type) {
+            this.fallbackReader = objectMapper.readerFor(type);
+            return this;
+        }
+
+        /**
+         * Build the {@link JsonEventDecoder} instance.
+         *
+         * @return a decoder
+         */
+        public JsonEventDecoder<E> build() {
+            return new JsonEventDecoder<>(objectMapper, discriminator,
+                    Collections.unmodifiableMap(new HashMap<>(readers)), fallbackReader);
+        }
+    }
+}
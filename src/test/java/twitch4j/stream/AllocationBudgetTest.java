@@ -0,0 +1,132 @@
+package twitch4j.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+import twitch4j.stream.json.Error;
+import twitch4j.stream.resources.ClientResources;
+import twitch4j.stream.rest.http.EmptyWriterStrategy;
+import twitch4j.stream.rest.http.JacksonReaderStrategy;
+import twitch4j.stream.rest.http.JacksonWriterStrategy;
+import twitch4j.stream.rest.http.client.SimpleHttpClient;
+import twitch4j.stream.rest.request.Router;
+import twitch4j.stream.rest.route.Route;
+import twitch4j.stream.websocket.WebSocketMessage;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures the bytes allocated per operation on the hot paths and fails when one exceeds its budget, so allocation
+ * regressions break the build.
+ * <p>
+ * Allocations are read from the {@code ThreadMXBean} counters of the threads doing the work: the test thread, the
+ * client event loops and the parallel scheduler. The stub server runs on other threads and is not counted. Budgets are
+ * in bytes per operation and can be overridden with system properties, e.g. {@code -Dbudget.router.exchange=40000}.
+ */
+public class AllocationBudgetTest {
+
+    private static final String CLIENT_PREFIX = "budget-client";
+
+    private static final Route<Error> ROUTE = Route.get("/users/{user.id}/follows", Error.class);
+    private static final String ERROR_JSON = "{\"error\":\"Not Found\",\"status\":404,\"message\":\"stub\"}";
+    private static final String IRC_LINE = "@badges=subscriber/12;color=#FF4500;display-name=Someone;emotes=;"
+            + "id=b34ccfc7-4977-403a-8a94-33c6bac34fb8;mod=0;room-id=1337;subscriber=1;tmi-sent-ts=1507246572675;"
+            + "turbo=0;user-id=1337;user-type= :someone!someone@someone.tmi.twitch.tv PRIVMSG #channel :Kappa Keepo";
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeClass
+    public static void enableAllocationCounters() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void routerExchangeStaysWithinBudget() throws Exception {
+        ClientResources resources = ClientResources.builder().prefix(CLIENT_PREFIX).eventLoopCount(1).build();
+        NettyContext server = HttpServer.create("127.0.0.1", 0)
+                .newHandler((request, response) -> response.status(200)
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just(ERROR_JSON)))
+                .block();
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            Router router = new Router(SimpleHttpClient.builder()
+                    .baseUrl("http://127.0.0.1:" + server.address().getPort())
+                    .resources(resources)
+                    .writerStrategy(new JacksonWriterStrategy(mapper))
+                    .writerStrategy(new EmptyWriterStrategy())
+                    .readerStrategy(new JacksonReaderStrategy<>(mapper))
+                    .build());
+            assertWithinBudget("router.exchange", 64 * 1024, 5_000, () -> ROUTE.newRequest(1).exchange(router).block());
+        } finally {
+            server.dispose();
+            server.onClose().block();
+            resources.dispose().block();
+        }
+    }
+
+    @Test
+    public void webSocketDecodeStaysWithinBudget() throws Exception {
+        ByteBuf line = Unpooled.copiedBuffer(IRC_LINE, StandardCharsets.UTF_8);
+        try {
+            assertWithinBudget("websocket.decode", 2 * 1024, 20_000, () -> {
+                TextWebSocketFrame frame = new TextWebSocketFrame(line.retainedDuplicate());
+                try {
+                    WebSocketMessage.fromFrame(frame).getPayloadAsText();
+                } finally {
+                    frame.release();
+                }
+            });
+        } finally {
+            line.release();
+        }
+    }
+
+    /**
+     * Run the operation once per iteration to warm it up, then again while counting the allocated bytes.
+     */
+    private static void assertWithinBudget(String name, long defaultBudget, int iterations, Operation operation)
+            throws Exception {
+        long budget = Long.getLong("budget." + name, defaultBudget);
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long perOperation = (allocatedBytes() - before) / iterations;
+        assertTrue(name + " allocates " + perOperation + " bytes/op, over its budget of " + budget,
+                perOperation <= budget);
+    }
+
+    private static long allocatedBytes() {
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            if (thread == Thread.currentThread() || name.startsWith(CLIENT_PREFIX) || name.startsWith("parallel-")) {
+                total += Math.max(0, threads.getThreadAllocatedBytes(thread.getId()));
+            }
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+
+        void run() throws Exception;
+    }
+}
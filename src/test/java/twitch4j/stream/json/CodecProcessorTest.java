@@ -0,0 +1,90 @@
+package twitch4j.stream.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks the codecs generated by the {@code CodecProcessor} of the codegen project, through the one of {@link Error}.
+ */
+public class CodecProcessorTest {
+
+    private final JsonFactory factory = new ObjectMapper().getFactory();
+    private final JsonCodec<Error> codec = JsonCodecs.find(Error.class);
+
+    @Test
+    public void registersGeneratedCodec() {
+        assertNotNull(codec);
+        assertEquals(Error.class, codec.type());
+    }
+
+    @Test
+    public void readsFieldsAndSkipsUnknownOnes() throws IOException {
+        Error error = read("{\"error\":\"Not Found\",\"extra\":{\"nested\":[1,2]},\"status\":404,\"message\":null}");
+
+        assertEquals("Not Found", error.getError());
+        assertEquals(Integer.valueOf(404), error.getStatus());
+        assertNull(error.getMessage());
+    }
+
+    @Test
+    public void readsNull() throws IOException {
+        assertNull(read("null"));
+    }
+
+    @Test
+    public void writesWhatItReads() throws IOException {
+        Error error = new Error();
+        error.setError("Too Many Requests");
+        error.setStatus(429);
+
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            codec.write(error, generator);
+        }
+
+        assertEquals("{\"error\":\"Too Many Requests\",\"status\":429,\"message\":null}", out.toString());
+        assertEquals(error, read(out.toString()));
+    }
+
+    @Test
+    public void readsScalarAsString() throws IOException {
+        assertEquals("404", read("{\"error\":404}").getError());
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsObjectForString() throws IOException {
+        read("{\"error\":{\"code\":404},\"status\":404}");
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsArrayForString() throws IOException {
+        read("{\"message\":[\"a\"]}");
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsStringForNumber() throws IOException {
+        read("{\"status\":\"404\"}");
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rejectsNonObject() throws IOException {
+        read("[]");
+    }
+
+    private Error read(String json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            return codec.read(parser);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package twitch4j.stream.rest.request;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    public void staysClosedUntilMinimumCalls() {
+        CircuitBreaker breaker = breaker(CircuitBreakerOptions.builder().window(10, 4));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onResult(FAST, true);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onResult(FAST, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void opensOnFailureRateAndRejectsCalls() {
+        CircuitBreaker breaker = breaker(CircuitBreakerOptions.builder()
+                .window(4, 4)
+                .failureRateThreshold(50)
+                .open(Duration.ofMinutes(1), 1));
+
+        breaker.onResult(FAST, false);
+        breaker.onResult(FAST, false);
+        breaker.onResult(FAST, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onResult(FAST, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.getRemainingOpenDuration().compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    public void opensOnSlowCallRate() {
+        CircuitBreaker breaker = breaker(CircuitBreakerOptions.builder()
+                .window(2, 2)
+                .slowCalls(Duration.ofSeconds(1), 50));
+
+        breaker.onResult(FAST, false);
+        breaker.onResult(SLOW, false);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void evictsOldestOutcomeFromWindow() {
+        CircuitBreaker breaker = breaker(CircuitBreakerOptions.builder()
+                .window(2, 2)
+                .failureRateThreshold(100));
+
+        breaker.onResult(FAST, true);
+        breaker.onResult(FAST, false);
+        breaker.onResult(FAST, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void closesAfterSuccessfulTrialCalls() {
+        CircuitBreaker breaker = opened(CircuitBreakerOptions.builder().open(Duration.ZERO, 2).rampUp(1));
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onResult(FAST, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(FAST, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void reopensOnFailedTrialCall() {
+        CircuitBreaker breaker = opened(CircuitBreakerOptions.builder().open(Duration.ofMillis(100), 2));
+        assertFalse(breaker.tryAcquire());
+
+        sleep(Duration.ofMillis(150));
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(FAST, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void ignoredTrialCallGivesBackItsPermit() {
+        CircuitBreaker breaker = opened(CircuitBreakerOptions.builder().open(Duration.ZERO, 1));
+
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onIgnored();
+
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void rampsUpAfterClosing() {
+        CircuitBreaker breaker = opened(CircuitBreakerOptions.builder().open(Duration.ZERO, 1).rampUp(2));
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(FAST, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        int permitted = 0;
+        for (int i = 0; i < 4; i++) {
+            if (breaker.tryAcquire()) {
+                permitted++;
+            }
+        }
+        assertEquals(2, permitted);
+
+        breaker.onResult(FAST, false);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+        }
+    }
+
+    @Test
+    public void reopensOnFailureDuringRampUp() {
+        CircuitBreaker breaker = opened(CircuitBreakerOptions.builder().open(Duration.ofMillis(100), 1).rampUp(4));
+        sleep(Duration.ofMillis(150));
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(FAST, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onResult(FAST, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static CircuitBreaker breaker(CircuitBreakerOptions.Builder options) {
+        return new CircuitBreaker("test", options.build());
+    }
+
+    /**
+     * Create a circuit breaker with a window of a single call, and open it.
+     */
+    private static CircuitBreaker opened(CircuitBreakerOptions.Builder options) {
+        CircuitBreaker breaker = breaker(options.window(1, 1));
+        breaker.onResult(FAST, true);
+        return breaker;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
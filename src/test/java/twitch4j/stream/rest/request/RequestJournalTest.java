@@ -0,0 +1,130 @@
+package twitch4j.stream.rest.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import twitch4j.stream.json.Error;
+import twitch4j.stream.rest.route.Route;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RequestJournalTest {
+
+    private static final Route<Error> ROUTE = Route.post("/channels/{channel.id}/commercial", Error.class);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void recoversPendingRequestsAfterReopening() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("journal");
+        try (RequestJournal journal = RequestJournal.builder(path, mapper).build()) {
+            journal.append(request("1").body(Collections.singletonMap("length", 30))
+                    .header("Authorization", "OAuth secret")).block();
+            journal.append(request("2").body("raw")).block();
+        }
+
+        try (RequestJournal journal = RequestJournal.builder(path, mapper).build()) {
+            List<TwitchRequest<?>> recovered = new ArrayList<>(journal.getRecovered().values());
+
+            assertEquals(2, recovered.size());
+            assertEquals(2, journal.size());
+            TwitchRequest<?> first = recovered.get(0);
+            assertEquals(HttpMethod.POST, first.getRoute().getMethod());
+            assertEquals("/channels/1/commercial", first.getCompleteUri());
+            assertEquals(30, ((JsonNode) first.getBody()).get("length").asInt());
+            assertTrue(first.getHeaders().containsEntry("authorization", "OAuth secret"));
+            assertEquals("raw", recovered.get(1).getBody());
+        }
+    }
+
+    @Test
+    public void doesNotRecoverAcknowledgedRequests() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("journal");
+        try (RequestJournal journal = RequestJournal.builder(path, mapper).build()) {
+            long acknowledged = journal.append(request("1")).block();
+            journal.append(request("2")).block();
+            journal.acknowledge(acknowledged);
+            assertEquals(1, journal.size());
+        }
+
+        try (RequestJournal journal = RequestJournal.builder(path, mapper).build()) {
+            Map<Long, TwitchRequest<?>> recovered = journal.getRecovered();
+
+            assertEquals(1, recovered.size());
+            assertEquals("/channels/2/commercial", recovered.values().iterator().next().getCompleteUri());
+        }
+    }
+
+    @Test
+    public void compactsAndGrowsWhenFull() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("journal");
+        String body = new String(new char[200]).replace('\0', 'x');
+        try (RequestJournal journal = RequestJournal.builder(path, mapper).capacity(1024).build()) {
+            // acknowledged records make room when compacted
+            for (int i = 0; i < 50; i++) {
+                journal.acknowledge(journal.append(request("acked").body(body)).block());
+            }
+            // pending records alone no longer fit, so the file grows
+            for (int i = 0; i < 20; i++) {
+                journal.append(request(Integer.toString(i)).body(body)).block();
+            }
+        }
+
+        try (RequestJournal journal = RequestJournal.builder(path, mapper).capacity(1024).build()) {
+            List<TwitchRequest<?>> recovered = new ArrayList<>(journal.getRecovered().values());
+
+            assertEquals(20, recovered.size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals("/channels/" + i + "/commercial", recovered.get(i).getCompleteUri());
+            }
+        }
+    }
+
+    @Test
+    public void storesTokenReferencesWithTokenStore() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("journal");
+        RequestJournal.TokenStore store = new RequestJournal.TokenStore() {
+
+            @Override
+            public String reference(String authorization) {
+                return "user-1";
+            }
+
+            @Override
+            public String resolve(String reference) {
+                return "OAuth refreshed";
+            }
+        };
+        try (RequestJournal journal = RequestJournal.builder(path, mapper).tokenStore(store).build()) {
+            journal.append(request("1").header("Authorization", "OAuth secret")).block();
+        }
+
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        assertFalse(content.contains("OAuth secret"));
+        try (RequestJournal journal = RequestJournal.builder(path, mapper).tokenStore(store).build()) {
+            TwitchRequest<?> recovered = journal.getRecovered().values().iterator().next();
+
+            assertTrue(recovered.getHeaders().containsEntry("authorization", "OAuth refreshed"));
+        }
+    }
+
+    private static TwitchRequest<Error> request(String channel) {
+        return ROUTE.newRequest(channel);
+    }
+}
@@ -0,0 +1,108 @@
+package twitch4j.stream.websocket.irc;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IrcMessageParserTest {
+
+    private static final String PRIVMSG = "@badges=moderator/1;display-name=Some\\sOne;emotes=;msg\\:id=a\\:b "
+            + ":someone!someone@someone.tmi.twitch.tv PRIVMSG #channel :Kappa Keepo";
+
+    @Test
+    public void parsesTagsPrefixAndParams() {
+        IrcMessage message = IrcMessage.of(PRIVMSG);
+
+        assertTrue(message.isCommand("PRIVMSG"));
+        assertEquals("PRIVMSG", message.getCommand());
+        assertEquals("someone!someone@someone.tmi.twitch.tv", message.getPrefix());
+        assertEquals("someone", message.getNick());
+        assertEquals(2, message.getParamCount());
+        assertTrue(message.isParam(0, "#channel"));
+        assertEquals("Kappa Keepo", message.getTrailing());
+    }
+
+    @Test
+    public void unescapesTagValues() {
+        IrcMessage message = IrcMessage.of(PRIVMSG);
+
+        assertTrue(message.hasTags());
+        assertEquals("Some One", message.getTag("display-name"));
+        assertEquals("", message.getTag("emotes"));
+        assertTrue(message.hasTag("emotes"));
+        assertFalse(message.hasTag("emote"));
+        assertNull(message.getTag("color"));
+        assertEquals("a;b", message.getTags().get("msg\\:id"));
+        assertEquals(4, message.getTags().size());
+    }
+
+    @Test
+    public void parsesMessageWithoutTagsOrPrefix() {
+        IrcMessage message = IrcMessage.of("PING :tmi.twitch.tv");
+
+        assertFalse(message.hasTags());
+        assertTrue(message.getTags().isEmpty());
+        assertNull(message.getPrefix());
+        assertNull(message.getNick());
+        assertEquals("tmi.twitch.tv", message.getTrailing());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsLineWithoutCommand() {
+        IrcMessage.of(":someone.tmi.twitch.tv ");
+    }
+
+    @Test
+    public void parsesEveryLineOfFrame() {
+        ByteBuf frame = frame(PRIVMSG + "\r\nPING :tmi.twitch.tv\r\n\r\n:tmi.twitch.tv 001 someone :Welcome\r\n");
+        List<String> commands = new ArrayList<>();
+
+        int count = new IrcMessageParser().parse(frame, message -> commands.add(message.getCommand()));
+
+        assertEquals(3, count);
+        assertEquals(3, commands.size());
+        assertEquals("PRIVMSG", commands.get(0));
+        assertEquals("PING", commands.get(1));
+        assertEquals("001", commands.get(2));
+        assertEquals(0, frame.readerIndex());
+    }
+
+    @Test
+    public void splitsFrameIntoSeparateMessages() {
+        ByteBuf frame = frame("PING :a\r\nPING :b\nPING :c");
+        List<IrcMessage> messages = new ArrayList<>();
+
+        IrcMessageParser.split(frame).forEach(messages::add);
+
+        assertEquals(3, messages.size());
+        assertEquals("a", messages.get(0).getTrailing());
+        assertEquals("b", messages.get(1).getTrailing());
+        assertEquals("c", messages.get(2).getTrailing());
+    }
+
+    @Test
+    public void copyOutlivesFrame() {
+        ByteBuf frame = Unpooled.copiedBuffer(PRIVMSG, StandardCharsets.UTF_8);
+        List<IrcMessage> copies = new ArrayList<>();
+
+        new IrcMessageParser().parse(frame, message -> copies.add(message.copy()));
+        frame.release();
+
+        assertEquals(1, copies.size());
+        assertEquals(PRIVMSG, copies.get(0).toString());
+        assertEquals("Some One", copies.get(0).getTag("display-name"));
+    }
+
+    private static ByteBuf frame(String payload) {
+        return Unpooled.wrappedBuffer(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}